@@ -32,15 +32,30 @@ public final class BaritoneAPI {
 
     static {
         settings = new Settings();
-        SettingsUtil.readAndApply(settings, SettingsUtil.SETTINGS_DEFAULT_NAME);
+        if (isHeadless()) {
+            // there is no game directory to read settings from, and no game to create a Baritone for
+            provider = null;
+        } else {
+            SettingsUtil.readAndApply(settings, SettingsUtil.SETTINGS_DEFAULT_NAME);
 
-        try {
-            provider = (IBaritoneProvider) Class.forName("baritone.BaritoneProvider").newInstance();
-        } catch (ReflectiveOperationException ex) {
-            throw new RuntimeException(ex);
+            try {
+                provider = (IBaritoneProvider) Class.forName("baritone.BaritoneProvider").newInstance();
+            } catch (ReflectiveOperationException ex) {
+                throw new RuntimeException(ex);
+            }
         }
     }
 
+    /**
+     * Whether Baritone is running without a Minecraft client, for example in benchmarks. Set with the
+     * {@code baritone.headless} system property. In that case there are only default settings, and no provider.
+     *
+     * @return Whether Baritone is running headless
+     */
+    public static boolean isHeadless() {
+        return Boolean.getBoolean("baritone.headless");
+    }
+
     public static IBaritoneProvider getProvider() {
         return BaritoneAPI.provider;
     }
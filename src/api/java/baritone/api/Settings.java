@@ -549,6 +549,163 @@ public final class Settings {
      */
     public final Setting<Float> pathingMapLoadFactor = new Setting<>(0.75f);
 
+    /**
+     * Which heap the path finder keeps its open set in. One of "binary", "pairing" or "radix", anything else is
+     * treated as "binary".
+     * <p>
+     * Doesn't apply to {@link #compactPathNodeStore}, which always uses its own binary heap
+     */
+    public final Setting<String> pathingOpenSet = new Setting<>("binary");
+
+    /**
+     * Store path nodes in flat primitive arrays instead of allocating an object for every explored position.
+     * <p>
+     * Cuts down on garbage collection pauses during very long calculations that explore millions of nodes
+     */
+    public final Setting<Boolean> compactPathNodeStore = new Setting<>(false);
+
+    /**
+     * How many threads a single path calculation is allowed to use. 1 means the regular single threaded search.
+     * <p>
+     * More than 1 splits the explored positions between that many threads by their hash. This is only worth it for
+     * long distance goals with large searches, and can use a little more memory since the search has to keep going
+     * until it's sure nothing better than the path it found can exist.
+     */
+    public final Setting<Integer> pathingThreads = new Setting<>(1);
+
+    /**
+     * Keep the node map and heap of the last path calculation around, cleared, and use them for the next one instead
+     * of allocating new ones every segment.
+     * <p>
+     * Doesn't apply when {@link #pathingThreads} is more than 1
+     */
+    public final Setting<Boolean> pathingReuseSearchState = new Setting<>(true);
+
+    /**
+     * While expanding a node, remember the blocks around it, so that the movements out of it don't each look up
+     * the same blocks again.
+     * <p>
+     * Doesn't apply when {@link #pathingThreads} is more than 1
+     */
+    public final Setting<Boolean> pathingBlockWindow = new Setting<>(false);
+
+    /**
+     * How many results of descend, diagonal and parkour movements to remember during a path calculation, so that
+     * expanding the same node again after a cheaper way to it is found doesn't redo their scans. 0 to disable.
+     * <p>
+     * Doesn't apply when {@link #pathingThreads} is more than 1
+     */
+    public final Setting<Integer> pathingMoveMemoSize = new Setting<>(4096);
+
+    /**
+     * When there's no path to walk at all, start walking the beginning of the one being calculated as soon as the
+     * search stops changing its mind about it, instead of standing still until the whole calculation is done.
+     * <p>
+     * Doesn't apply when {@link #pathingThreads} is more than 1
+     */
+    public final Setting<Boolean> pathingStreamPrefix = new Setting<>(false);
+
+    /**
+     * How long the beginning of the path has to stay the same before it's walked, with {@link #pathingStreamPrefix}
+     */
+    public final Setting<Long> pathingStreamPrefixStableMS = new Setting<>(150L);
+
+    /**
+     * How many blocks long the stable beginning of the path has to be at least, with {@link #pathingStreamPrefix}
+     */
+    public final Setting<Integer> pathingStreamPrefixMinLength = new Setting<>(8);
+
+    /**
+     * Multiplies the heuristic by this much during the search, so that a path that's at most this many times more
+     * expensive than the best one is found much sooner on big open terrain. Whenever a path is found before
+     * {@link #primaryTimeoutMS}, the weight is lowered by {@link #pathingWeightStep} and the search keeps going to
+     * improve on it. 1 to search normally.
+     * <p>
+     * Doesn't apply when {@link #pathingThreads} is in use
+     */
+    public final Setting<Double> pathingInitialWeight = new Setting<>(1.0);
+
+    /**
+     * How much {@link #pathingInitialWeight} is lowered by every time a path is found, down to 1
+     */
+    public final Setting<Double> pathingWeightStep = new Setting<>(0.5);
+
+    /**
+     * On flat open ground, skip the traverse and diagonal movements that only lead to other orderings of equally cheap
+     * steps, the way jump point search does. Keeps the map much smaller on plains and the nether roof.
+     * <p>
+     * Doesn't apply when {@link #pathingThreads} is in use, or with {@link #avoidance} or a backtrack cost favoring in
+     * effect
+     */
+    public final Setting<Boolean> pathingSymmetryPruning = new Setting<>(false);
+
+    /**
+     * How many milliseconds of CPU time path calculations and block rescans may use per game tick (50ms), added up over
+     * all of their threads. When it's used up they wait, so that Baritone can't take over a busy machine. 0 for no
+     * limit.
+     * <p>
+     * Time spent waiting counts towards {@link #primaryTimeoutMS} and {@link #failureTimeoutMS}, so a tight budget
+     * also means calculations give up sooner.
+     */
+    public final Setting<Long> backgroundCpuBudgetMSPerTick = new Setting<>(0L);
+
+    /**
+     * Give path calculations a copy of the loaded chunks around the player to read, instead of reading the live chunks
+     * that the main thread is changing at the same time. Only sections that changed since the previous calculation are
+     * copied again, but the first copy and the memory it takes grow with {@link #pathingChunkSnapshotRadius}.
+     */
+    public final Setting<Boolean> pathingChunkSnapshots = new Setting<>(false);
+
+    /**
+     * How many chunks in each direction from the player {@link #pathingChunkSnapshots} copies. Loaded chunks further
+     * away are read like unloaded ones, from the cache if it has them.
+     */
+    public final Setting<Integer> pathingChunkSnapshotRadius = new Setting<>(8);
+
+    /**
+     * When the goal is one or a few known positions, read every block in the box around them and the start before the
+     * calculation begins, so that the search looks blocks up in a flat array instead of the chunk sections
+     */
+    public final Setting<Boolean> pathingMaterializeRegion = new Setting<>(false);
+
+    /**
+     * How far past the start and the goal the box read by {@link #pathingMaterializeRegion} goes
+     */
+    public final Setting<Integer> pathingMaterializeMargin = new Setting<>(16);
+
+    /**
+     * The most blocks {@link #pathingMaterializeRegion} will read, the array takes 4 bytes per block
+     */
+    public final Setting<Long> pathingMaterializeMaxVolume = new Setting<>(1L << 20);
+
+    /**
+     * While a path calculation is running, load the cached regions around the node it's expanding from disk in the
+     * background. Without this, a region that hasn't been loaded yet is read as air by the calculation.
+     */
+    public final Setting<Boolean> pathingPrefetchRegions = new Setting<>(false);
+
+    /**
+     * Also time every movement cost calculation and every heuristic during path calculations, for
+     * {@link baritone.api.behavior.IPathingBehavior#getCalculationHistory()}. The counts are always kept, but the
+     * timings call {@link System#nanoTime()} a lot, which slows pathing down a little.
+     */
+    public final Setting<Boolean> pathingMetricsTimings = new Setting<>(false);
+
+    /**
+     * How many path calculations to keep the metrics of in
+     * {@link baritone.api.behavior.IPathingBehavior#getCalculationHistory()}
+     */
+    public final Setting<Integer> pathingMetricsHistorySize = new Setting<>(100);
+
+    /**
+     * If not empty, the metrics of every path calculation are appended as a line to this CSV file. Relative paths
+     * are inside of the baritone folder.
+     * <p>
+     * Each line ends with how many times each kind of movement was considered and how long that took, two columns per
+     * movement. The header is only written when the file is created, so start a new file after updating.
+     */
+    public final Setting<String> pathingMetricsFile = new Setting<>("");
+
     /**
      * How far are you allowed to fall onto solid ground (without a water bucket)?
      * 3 won't deal any damage. But if you just want to get down the mountain quickly and you have
@@ -614,6 +771,48 @@ public final class Settings {
      */
     public final Setting<Long> planAheadFailureTimeoutMS = new Setting<>(5000L);
 
+    /**
+     * For goals very far away, first plan a rough route across whole chunks using the chunk cache, then only path
+     * to a waypoint along that route each segment, instead of straight towards the goal. The route is planned at the
+     * start of each calculation, loading the cached regions it crosses from disk as it goes.
+     * <p>
+     * Doesn't do anything in dimensions with a ceiling, like the nether
+     */
+    public final Setting<Boolean> hierarchicalPathing = new Setting<>(false);
+
+    /**
+     * Only plan a rough route across chunks first if the goal is at least this many blocks away
+     */
+    public final Setting<Integer> hierarchicalPathingMinDistance = new Setting<>(1024);
+
+    /**
+     * How many blocks along the rough route across chunks each segment should path to
+     */
+    public final Setting<Integer> hierarchicalPathingWaypointDistance = new Setting<>(512);
+
+    /**
+     * Give up on planning a rough route across chunks after considering this many chunks. Planning also gives up once
+     * it has taken {@link #primaryTimeoutMS}, and whatever time it took is taken off the time left for the path.
+     */
+    public final Setting<Integer> hierarchicalPathingMaxChunks = new Setting<>(10000);
+
+    /**
+     * When a block change makes part of the current path impossible, first try to find a short detour back onto the
+     * rest of the path, before recalculating the whole thing
+     */
+    public final Setting<Boolean> pathRepair = new Setting<>(true);
+
+    /**
+     * Searching for a detour around a block change can never take longer than this. If it does, the path is
+     * recalculated from scratch instead
+     */
+    public final Setting<Long> pathRepairTimeoutMS = new Setting<>(300L);
+
+    /**
+     * How many positions of the path after the impossible part a detour is allowed to rejoin it at
+     */
+    public final Setting<Integer> pathRepairRejoinPositions = new Setting<>(32);
+
     /**
      * For debugging, consider nodes much much slower
      */
@@ -19,6 +19,7 @@ package baritone.api.behavior;
 
 import baritone.api.pathing.calc.IPath;
 import baritone.api.pathing.calc.IPathFinder;
+import baritone.api.pathing.calc.PathCalculationHistory;
 import baritone.api.pathing.goals.Goal;
 import baritone.api.pathing.path.IPathExecutor;
 
@@ -129,4 +130,10 @@ public interface IPathingBehavior extends IBehavior {
      * @return The next path executor
      */
     IPathExecutor getNext();
+
+    /**
+     * @return The metrics of the most recent path calculations
+     * @see baritone.api.Settings#pathingMetricsHistorySize
+     */
+    PathCalculationHistory getCalculationHistory();
 }
@@ -0,0 +1,90 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.api.pathing.calc;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The metrics of the most recent path calculations, oldest first. Safe to read from any thread.
+ *
+ * @see baritone.api.behavior.IPathingBehavior#getCalculationHistory()
+ */
+public final class PathCalculationHistory {
+
+    /**
+     * Bucket {@code i} of {@link #getDurationHistogram()} counts the calculations that took less than
+     * {@code 2^i} milliseconds, but not less than {@code 2^(i-1)}. The last bucket also counts everything slower.
+     */
+    public static final int HISTOGRAM_BUCKETS = 18;
+
+    private final ArrayDeque<PathCalculationMetrics> recent = new ArrayDeque<>();
+    private final int capacity;
+
+    public PathCalculationHistory(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public synchronized void add(PathCalculationMetrics metrics) {
+        if (capacity <= 0) {
+            return;
+        }
+        while (recent.size() >= capacity) {
+            recent.removeFirst();
+        }
+        recent.addLast(metrics);
+    }
+
+    public synchronized List<PathCalculationMetrics> getRecent() {
+        return new ArrayList<>(recent);
+    }
+
+    public synchronized PathCalculationMetrics getLatest() {
+        return recent.peekLast();
+    }
+
+    /**
+     * @return How many of the recent calculations fall into each duration bucket, see {@link #HISTOGRAM_BUCKETS}
+     */
+    public synchronized int[] getDurationHistogram() {
+        int[] histogram = new int[HISTOGRAM_BUCKETS];
+        for (PathCalculationMetrics metrics : recent) {
+            // 64 - numberOfLeadingZeros(d) is the index of the smallest power of two greater than d
+            int bucket = 64 - Long.numberOfLeadingZeros(Math.max(0, metrics.getDurationMillis()));
+            histogram[Math.min(bucket, HISTOGRAM_BUCKETS - 1)]++;
+        }
+        return histogram;
+    }
+
+    /**
+     * @param percentile Between 0 and 100
+     * @return The duration that the given percentage of recent calculations were at most as slow as, or 0 if there
+     * haven't been any
+     */
+    public synchronized long getDurationPercentile(double percentile) {
+        if (recent.isEmpty()) {
+            return 0;
+        }
+        long[] durations = recent.stream().mapToLong(PathCalculationMetrics::getDurationMillis).toArray();
+        Arrays.sort(durations);
+        int index = (int) Math.ceil(percentile / 100 * durations.length) - 1;
+        return durations[Math.max(0, Math.min(durations.length - 1, index))];
+    }
+}
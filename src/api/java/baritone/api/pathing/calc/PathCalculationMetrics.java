@@ -0,0 +1,177 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.api.pathing.calc;
+
+import baritone.api.utils.PathCalculationResult;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * What happened during a single path calculation, for keeping an eye on pathing performance
+ *
+ * @see baritone.api.behavior.IPathingBehavior#getCalculationHistory()
+ */
+public final class PathCalculationMetrics {
+
+    private final String finder;
+    private final long startTime;
+    private final long durationMillis;
+    private final PathCalculationResult.Type result;
+    private final int nodesExpanded;
+    private final int nodesCreated;
+    private final int movementsConsidered;
+    private final int chunkBorderFetchFailures;
+    private final int openSetHighWaterMark;
+    private final long heuristicNanos;
+    private final Map<String, Integer> movementCalls;
+    private final Map<String, Long> movementNanos;
+    private final long gcCount;
+    private final long gcMillis;
+
+    public PathCalculationMetrics(String finder, long startTime, long durationMillis, PathCalculationResult.Type result,
+                                  int nodesExpanded, int nodesCreated, int movementsConsidered, int chunkBorderFetchFailures,
+                                  int openSetHighWaterMark, long heuristicNanos, Map<String, Integer> movementCalls,
+                                  Map<String, Long> movementNanos, long gcCount, long gcMillis) {
+        this.finder = finder;
+        this.startTime = startTime;
+        this.durationMillis = durationMillis;
+        this.result = result;
+        this.nodesExpanded = nodesExpanded;
+        this.nodesCreated = nodesCreated;
+        this.movementsConsidered = movementsConsidered;
+        this.chunkBorderFetchFailures = chunkBorderFetchFailures;
+        this.openSetHighWaterMark = openSetHighWaterMark;
+        this.heuristicNanos = heuristicNanos;
+        this.movementCalls = Collections.unmodifiableMap(movementCalls);
+        this.movementNanos = Collections.unmodifiableMap(movementNanos);
+        this.gcCount = gcCount;
+        this.gcMillis = gcMillis;
+    }
+
+    /**
+     * @return The name of the path finder implementation that did the calculation
+     */
+    public String getFinder() {
+        return finder;
+    }
+
+    /**
+     * @return When the calculation started, in milliseconds since the epoch
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public PathCalculationResult.Type getResult() {
+        return result;
+    }
+
+    /**
+     * @return How many nodes were taken out of the open set and had their neighbors looked at
+     */
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    /**
+     * @return How many distinct positions the search knew about by the end
+     */
+    public int getNodesCreated() {
+        return nodesCreated;
+    }
+
+    public int getMovementsConsidered() {
+        return movementsConsidered;
+    }
+
+    /**
+     * @return How many times a movement couldn't be considered because it went into an unloaded chunk
+     * @see baritone.api.Settings#pathingMaxChunkBorderFetch
+     */
+    public int getChunkBorderFetchFailures() {
+        return chunkBorderFetchFailures;
+    }
+
+    /**
+     * @return The most nodes that were in the open set at once
+     */
+    public int getOpenSetHighWaterMark() {
+        return openSetHighWaterMark;
+    }
+
+    /**
+     * @return The total time spent calculating the heuristic of new nodes, or -1 if it wasn't timed
+     * @see baritone.api.Settings#pathingMetricsTimings
+     */
+    public long getHeuristicNanos() {
+        return heuristicNanos;
+    }
+
+    /**
+     * @return How many times each kind of movement had its cost calculated, by name
+     */
+    public Map<String, Integer> getMovementCalls() {
+        return movementCalls;
+    }
+
+    /**
+     * @return The total time spent calculating the cost of each kind of movement, by name, or nothing if it wasn't timed
+     * @see baritone.api.Settings#pathingMetricsTimings
+     */
+    public Map<String, Long> getMovementNanos() {
+        return movementNanos;
+    }
+
+    /**
+     * @return How many garbage collections happened while calculating. This is for the whole JVM, not just pathing.
+     */
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    /**
+     * @return How long garbage collection took while calculating. This is for the whole JVM, not just pathing.
+     */
+    public long getGcMillis() {
+        return gcMillis;
+    }
+
+    /**
+     * @return The nodes expanded per second, or 0 if the calculation was too quick to tell
+     */
+    public double getNodesPerSecond() {
+        return durationMillis == 0 ? 0 : nodesExpanded * 1000D / durationMillis;
+    }
+
+    @Override
+    public String toString() {
+        return finder + " " + result + " in " + durationMillis + "ms, "
+                + nodesExpanded + " nodes expanded, "
+                + nodesCreated + " nodes created, "
+                + movementsConsidered + " movements considered, "
+                + chunkBorderFetchFailures + " chunk border fetch failures, "
+                + "open set high water mark " + openSetHighWaterMark + ", "
+                + (int) getNodesPerSecond() + " nodes per second, "
+                + gcCount + " GCs taking " + gcMillis + "ms";
+    }
+}
@@ -27,7 +27,7 @@ import net.minecraft.core.BlockPos;
  *
  * @author leijurv
  */
-public class GoalBlock implements Goal, IGoalRenderPos {
+public class GoalBlock implements IColumnGoal, IGoalRenderPos {
 
     /**
      * The X block position of this goal
@@ -97,6 +97,26 @@ public class GoalBlock implements Goal, IGoalRenderPos {
         );
     }
 
+    @Override
+    public int getColumnX() {
+        return x;
+    }
+
+    @Override
+    public int getColumnZ() {
+        return z;
+    }
+
+    @Override
+    public int getColumnMinY() {
+        return y;
+    }
+
+    @Override
+    public int getColumnMaxY() {
+        return y;
+    }
+
     /**
      * @return The position of this goal as a {@link BlockPos}
      */
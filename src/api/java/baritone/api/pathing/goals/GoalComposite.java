@@ -33,12 +33,33 @@ public class GoalComposite implements Goal {
      */
     private final Goal[] goals;
 
+    /**
+     * Only built once the goals are asked for, and only if there are enough {@link IColumnGoal}s to make it worth it
+     */
+    private volatile GoalCompositeIndex index;
+
+    private final boolean indexed;
+
     public GoalComposite(Goal... goals) {
         this.goals = goals;
+        this.indexed = GoalCompositeIndex.worthIndexing(goals);
+    }
+
+    private GoalCompositeIndex index() {
+        GoalCompositeIndex index = this.index;
+        if (index == null) {
+            // racing threads might both build one, that's fine since they're identical
+            index = new GoalCompositeIndex(goals);
+            this.index = index;
+        }
+        return index;
     }
 
     @Override
     public boolean isInGoal(int x, int y, int z) {
+        if (indexed) {
+            return index().isInGoal(x, y, z);
+        }
         for (Goal goal : goals) {
             if (goal.isInGoal(x, y, z)) {
                 return true;
@@ -49,6 +70,9 @@ public class GoalComposite implements Goal {
 
     @Override
     public double heuristic(int x, int y, int z) {
+        if (indexed) {
+            return index().heuristic(x, y, z);
+        }
         double min = Double.MAX_VALUE;
         for (Goal g : goals) {
             // TODO technically this isn't admissible...?
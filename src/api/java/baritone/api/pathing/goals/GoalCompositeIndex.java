@@ -0,0 +1,259 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.api.pathing.goals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buckets the {@link IColumnGoal}s of a {@link GoalComposite} into a grid by where they are, so that the heuristic
+ * only has to ask the goals in buckets that could possibly be closer than the best one found so far. The result is
+ * exactly the same as asking every goal, only faster when there are a lot of them, like when mining.
+ */
+final class GoalCompositeIndex {
+
+    /**
+     * Below this many column goals, just asking all of them is about as fast
+     */
+    static final int MIN_GOALS = 16;
+
+    /**
+     * Buckets are at least 16 blocks wide, and get wider until the grid is at most this many buckets on each side
+     */
+    private static final int MAX_GRID_SIZE = 64;
+
+    /**
+     * Goals that aren't {@link IColumnGoal}s, these always have to be asked
+     */
+    private final Goal[] others;
+    private final Bucket[] grid;
+    private final int originX;
+    private final int originZ;
+    private final int shift;
+    private final int sizeX;
+    private final int sizeZ;
+    private final double minOffset;
+
+    GoalCompositeIndex(Goal[] goals) {
+        List<Goal> others = new ArrayList<>();
+        List<IColumnGoal> columns = new ArrayList<>();
+        int minX = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int minZ = Integer.MAX_VALUE;
+        int maxZ = Integer.MIN_VALUE;
+        double minOffset = Double.MAX_VALUE;
+        for (Goal goal : goals) {
+            if (goal instanceof IColumnGoal) {
+                IColumnGoal column = (IColumnGoal) goal;
+                columns.add(column);
+                minX = Math.min(minX, column.getColumnX());
+                maxX = Math.max(maxX, column.getColumnX());
+                minZ = Math.min(minZ, column.getColumnZ());
+                maxZ = Math.max(maxZ, column.getColumnZ());
+                minOffset = Math.min(minOffset, column.getHeuristicOffset());
+            } else {
+                others.add(goal);
+            }
+        }
+        int shift = 4;
+        while ((maxX - minX) >> shift >= MAX_GRID_SIZE || (maxZ - minZ) >> shift >= MAX_GRID_SIZE) {
+            shift++;
+        }
+        this.others = others.toArray(new Goal[0]);
+        this.originX = minX;
+        this.originZ = minZ;
+        this.shift = shift;
+        this.sizeX = ((maxX - minX) >> shift) + 1;
+        this.sizeZ = ((maxZ - minZ) >> shift) + 1;
+        this.minOffset = minOffset;
+        List<List<IColumnGoal>> cells = new ArrayList<>();
+        for (int i = 0; i < sizeX * sizeZ; i++) {
+            cells.add(null);
+        }
+        for (IColumnGoal column : columns) {
+            int cell = cellX(column.getColumnX()) * sizeZ + cellZ(column.getColumnZ());
+            if (cells.get(cell) == null) {
+                cells.set(cell, new ArrayList<>());
+            }
+            cells.get(cell).add(column);
+        }
+        this.grid = new Bucket[sizeX * sizeZ];
+        for (int i = 0; i < grid.length; i++) {
+            if (cells.get(i) != null) {
+                grid[i] = new Bucket(cells.get(i));
+            }
+        }
+    }
+
+    static boolean worthIndexing(Goal[] goals) {
+        int columns = 0;
+        for (Goal goal : goals) {
+            if (goal instanceof IColumnGoal && ++columns >= MIN_GOALS) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int cellX(int x) {
+        return (x - originX) >> shift;
+    }
+
+    private int cellZ(int z) {
+        return (z - originZ) >> shift;
+    }
+
+    boolean isInGoal(int x, int y, int z) {
+        for (Goal goal : others) {
+            if (goal.isInGoal(x, y, z)) {
+                return true;
+            }
+        }
+        // column goals are never satisfied more than one block away from their column, so only the buckets of the
+        // neighboring columns need to be checked, and that's at most two buckets on each axis
+        int fromX = Math.max(0, cellX(x - 1));
+        int toX = Math.min(sizeX - 1, cellX(x + 1));
+        int fromZ = Math.max(0, cellZ(z - 1));
+        int toZ = Math.min(sizeZ - 1, cellZ(z + 1));
+        for (int cellX = fromX; cellX <= toX; cellX++) {
+            for (int cellZ = fromZ; cellZ <= toZ; cellZ++) {
+                Bucket bucket = grid[cellX * sizeZ + cellZ];
+                if (bucket != null && bucket.mightContain(x, y, z)) {
+                    for (IColumnGoal goal : bucket.goals) {
+                        if (goal.isInGoal(x, y, z)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    double heuristic(int x, int y, int z) {
+        double min = Double.MAX_VALUE;
+        for (Goal goal : others) {
+            min = Math.min(min, goal.heuristic(x, y, z));
+        }
+        int centerX = cellX(x);
+        int centerZ = cellZ(z);
+        // go outwards in square rings of buckets around the one (x, z) is in, starting with the first ring that has
+        // any buckets in it at all
+        int firstRing = Math.max(Math.max(-centerX, centerX - (sizeX - 1)), Math.max(-centerZ, centerZ - (sizeZ - 1)));
+        int lastRing = Math.max(Math.max(centerX, sizeX - 1 - centerX), Math.max(centerZ, sizeZ - 1 - centerZ));
+        for (int ring = Math.max(0, firstRing); ring <= lastRing; ring++) {
+            // every block in this ring is at least this far away on the x or the z axis, and the heuristic towards
+            // a column is at least the heuristic of walking straight for as long as the longer of those two
+            int distance = ring <= 1 ? 0 : (ring - 1) << shift;
+            if (minOffset + GoalBlock.calculate(distance, 0, 0) >= min) {
+                break;
+            }
+            int fromX = Math.max(0, centerX - ring);
+            int toX = Math.min(sizeX - 1, centerX + ring);
+            for (int cellX = fromX; cellX <= toX; cellX++) {
+                if (cellX == centerX - ring || cellX == centerX + ring) {
+                    // a side of the ring
+                    int fromZ = Math.max(0, centerZ - ring);
+                    int toZ = Math.min(sizeZ - 1, centerZ + ring);
+                    for (int cellZ = fromZ; cellZ <= toZ; cellZ++) {
+                        min = visit(cellX, cellZ, x, y, z, min);
+                    }
+                } else {
+                    // only the top and bottom of the ring
+                    if (centerZ - ring >= 0 && centerZ - ring < sizeZ) {
+                        min = visit(cellX, centerZ - ring, x, y, z, min);
+                    }
+                    if (ring != 0 && centerZ + ring >= 0 && centerZ + ring < sizeZ) {
+                        min = visit(cellX, centerZ + ring, x, y, z, min);
+                    }
+                }
+            }
+        }
+        return min;
+    }
+
+    private double visit(int cellX, int cellZ, int x, int y, int z, double min) {
+        Bucket bucket = grid[cellX * sizeZ + cellZ];
+        if (bucket == null || bucket.lowerBound(x, y, z) >= min) {
+            return min;
+        }
+        return bucket.heuristic(x, y, z, min);
+    }
+
+    private static final class Bucket {
+
+        final IColumnGoal[] goals;
+        final int minX;
+        final int maxX;
+        final int minY;
+        final int maxY;
+        final int minZ;
+        final int maxZ;
+        final double minOffset;
+
+        Bucket(List<IColumnGoal> goals) {
+            this.goals = goals.toArray(new IColumnGoal[0]);
+            int minX = Integer.MAX_VALUE;
+            int maxX = Integer.MIN_VALUE;
+            int minY = Integer.MAX_VALUE;
+            int maxY = Integer.MIN_VALUE;
+            int minZ = Integer.MAX_VALUE;
+            int maxZ = Integer.MIN_VALUE;
+            double minOffset = Double.MAX_VALUE;
+            for (IColumnGoal goal : goals) {
+                minX = Math.min(minX, goal.getColumnX());
+                maxX = Math.max(maxX, goal.getColumnX());
+                minY = Math.min(minY, goal.getColumnMinY());
+                maxY = Math.max(maxY, goal.getColumnMaxY());
+                minZ = Math.min(minZ, goal.getColumnZ());
+                maxZ = Math.max(maxZ, goal.getColumnZ());
+                minOffset = Math.min(minOffset, goal.getHeuristicOffset());
+            }
+            this.minX = minX;
+            this.maxX = maxX;
+            this.minY = minY;
+            this.maxY = maxY;
+            this.minZ = minZ;
+            this.maxZ = maxZ;
+            this.minOffset = minOffset;
+        }
+
+        boolean mightContain(int x, int y, int z) {
+            // column goals are never satisfied more than one block away from their column
+            return x >= minX - 1 && x <= maxX + 1 && y >= minY - 1 && y <= maxY + 1 && z >= minZ - 1 && z <= maxZ + 1;
+        }
+
+        /**
+         * The heuristic of every goal in here is at least this. The heuristic only gets bigger further away from the
+         * column on every axis, and every column is somewhere inside of this bucket's box.
+         */
+        double lowerBound(int x, int y, int z) {
+            int xDiff = x < minX ? x - minX : x > maxX ? x - maxX : 0;
+            int yDiff = y < minY ? y - minY : y > maxY ? y - maxY : 0;
+            int zDiff = z < minZ ? z - minZ : z > maxZ ? z - maxZ : 0;
+            return minOffset + GoalBlock.calculate(xDiff, yDiff, zDiff);
+        }
+
+        double heuristic(int x, int y, int z, double min) {
+            for (IColumnGoal goal : goals) {
+                min = Math.min(min, goal.heuristic(x, y, z));
+            }
+            return min;
+        }
+    }
+}
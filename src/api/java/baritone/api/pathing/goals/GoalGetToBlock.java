@@ -28,7 +28,7 @@ import net.minecraft.core.BlockPos;
  *
  * @author avecowa
  */
-public class GoalGetToBlock implements Goal, IGoalRenderPos {
+public class GoalGetToBlock implements IColumnGoal, IGoalRenderPos {
 
     public final int x;
     public final int y;
@@ -45,6 +45,26 @@ public class GoalGetToBlock implements Goal, IGoalRenderPos {
         return new BlockPos(x, y, z);
     }
 
+    @Override
+    public int getColumnX() {
+        return x;
+    }
+
+    @Override
+    public int getColumnZ() {
+        return z;
+    }
+
+    @Override
+    public int getColumnMinY() {
+        return y - 1;
+    }
+
+    @Override
+    public int getColumnMaxY() {
+        return y;
+    }
+
     @Override
     public boolean isInGoal(int x, int y, int z) {
         int xDiff = x - this.x;
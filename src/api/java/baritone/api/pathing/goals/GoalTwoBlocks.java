@@ -28,7 +28,7 @@ import net.minecraft.core.BlockPos;
  *
  * @author leijurv
  */
-public class GoalTwoBlocks implements Goal, IGoalRenderPos {
+public class GoalTwoBlocks implements IColumnGoal, IGoalRenderPos {
 
     /**
      * The X block position of this goal
@@ -68,6 +68,26 @@ public class GoalTwoBlocks implements Goal, IGoalRenderPos {
         return GoalBlock.calculate(xDiff, yDiff < 0 ? yDiff + 1 : yDiff, zDiff);
     }
 
+    @Override
+    public int getColumnX() {
+        return x;
+    }
+
+    @Override
+    public int getColumnZ() {
+        return z;
+    }
+
+    @Override
+    public int getColumnMinY() {
+        return y - 1;
+    }
+
+    @Override
+    public int getColumnMaxY() {
+        return y;
+    }
+
     @Override
     public BlockPos getGoalPos() {
         return new BlockPos(x, y, z);
@@ -0,0 +1,51 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.api.pathing.goals;
+
+/**
+ * A goal around a vertical run of blocks in a single column, whose heuristic is exactly
+ * {@link #getHeuristicOffset()} plus {@link GoalBlock#calculate} towards the closest block of that run, and which is
+ * never satisfied further than one block away from it.
+ * <p>
+ * A {@link GoalComposite} made of many of these can skip most of them when calculating its heuristic, see
+ * {@link GoalCompositeIndex}. Subclasses that change the heuristic or widen where the goal is satisfied must keep
+ * these methods in line with it.
+ */
+public interface IColumnGoal extends Goal {
+
+    int getColumnX();
+
+    int getColumnZ();
+
+    /**
+     * @return The lowest y position in the column, inclusive
+     */
+    int getColumnMinY();
+
+    /**
+     * @return The highest y position in the column, inclusive
+     */
+    int getColumnMaxY();
+
+    /**
+     * @return A constant that's added to the heuristic everywhere
+     */
+    default double getHeuristicOffset() {
+        return 0;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.bench;
+
+import baritone.utils.ArrayBlockSource;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.Random;
+
+/**
+ * Rolling hills with some trees, water and walls, which is enough to give every kind of movement something to do
+ */
+public final class SyntheticWorld {
+
+    public static final int SIZE = 256;
+    public static final int MIN_Y = 0;
+    public static final int HEIGHT = 96;
+
+    private SyntheticWorld() {}
+
+    public static ArrayBlockSource create(long seed) {
+        HeadlessBootstrap.init();
+        Random random = new Random(seed);
+        BlockState stone = Blocks.STONE.defaultBlockState();
+        BlockState dirt = Blocks.DIRT.defaultBlockState();
+        BlockState grass = Blocks.GRASS_BLOCK.defaultBlockState();
+        BlockState water = Blocks.WATER.defaultBlockState();
+        BlockState log = Blocks.OAK_LOG.defaultBlockState();
+        BlockState leaves = Blocks.OAK_LEAVES.defaultBlockState();
+        ArrayBlockSource world = new ArrayBlockSource(0, MIN_Y, 0, SIZE, HEIGHT, SIZE);
+        double phaseX = random.nextDouble() * Math.PI * 2;
+        double phaseZ = random.nextDouble() * Math.PI * 2;
+        for (int x = 0; x < SIZE; x++) {
+            for (int z = 0; z < SIZE; z++) {
+                int surface = surface(x, z, phaseX, phaseZ);
+                world.fill(x, MIN_Y, z, x, surface - 4, z, stone);
+                world.fill(x, surface - 3, z, x, surface - 1, z, dirt);
+                if (surface < 40) {
+                    world.set(x, surface, z, dirt);
+                    world.fill(x, surface + 1, z, x, 40, z, water);
+                } else {
+                    world.set(x, surface, z, grass);
+                }
+            }
+        }
+        for (int i = 0; i < SIZE * SIZE / 200; i++) {
+            int x = 2 + random.nextInt(SIZE - 4);
+            int z = 2 + random.nextInt(SIZE - 4);
+            int surface = surface(x, z, phaseX, phaseZ);
+            if (surface < 40) {
+                continue;
+            }
+            world.fill(x - 2, surface + 4, z - 2, x + 2, surface + 6, z + 2, leaves);
+            world.fill(x, surface + 1, z, x, surface + 5, z, log);
+        }
+        for (int i = 0; i < 8; i++) {
+            // long walls that have to be gone around, over or through
+            int x = random.nextInt(SIZE - 64);
+            int z = random.nextInt(SIZE);
+            for (int dx = 0; dx < 64; dx++) {
+                int surface = surface(x + dx, z, phaseX, phaseZ);
+                world.fill(x + dx, surface + 1, z, x + dx, surface + 3, z, stone);
+            }
+        }
+        return world;
+    }
+
+    /**
+     * @return The y position of the feet of a player standing on top of this column
+     */
+    public static int standingY(ArrayBlockSource world, int x, int z) {
+        int y = MIN_Y + HEIGHT - 1;
+        while (y > MIN_Y && world.get(x, y, z).isAir()) {
+            y--;
+        }
+        return y + 1;
+    }
+
+    private static int surface(int x, int z, double phaseX, double phaseZ) {
+        return 48 + (int) (6 * Math.sin(x / 17D + phaseX) + 6 * Math.cos(z / 23D + phaseZ) + 3 * Math.sin((x + z) / 7D));
+    }
+}
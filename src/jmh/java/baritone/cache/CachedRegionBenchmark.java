@@ -0,0 +1,125 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package baritone.cache;
+
+import baritone.bench.HeadlessBootstrap;
+import baritone.utils.pathing.PathingBlockType;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.data.registries.VanillaRegistries;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.dimension.BuiltinDimensionTypes;
+import net.minecraft.world.level.dimension.DimensionType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving and loading a full region of synthetic terrain, and reading blocks back out of it
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CachedRegionBenchmark {
+
+    private DimensionType dimension;
+    private CachedRegion region;
+    private String directory;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        HeadlessBootstrap.init();
+        dimension = VanillaRegistries.createLookup()
+                .lookupOrThrow(Registries.DIMENSION_TYPE)
+                .getOrThrow(BuiltinDimensionTypes.OVERWORLD)
+                .value();
+        directory = Files.createTempDirectory("baritone-bench").toString();
+        region = new CachedRegion(0, 0, dimension);
+        Random random = new Random(1337);
+        for (int x = 0; x < 32; x++) {
+            for (int z = 0; z < 32; z++) {
+                region.updateCachedChunk(x, z, syntheticChunk(x, z, random));
+            }
+        }
+        region.save(directory);
+    }
+
+    /**
+     * Rolling stone terrain with some caves, water at the bottom and a couple diamond ores
+     */
+    private CachedChunk syntheticChunk(int chunkX, int chunkZ, Random random) {
+        int height = dimension.height();
+        BitSet data = new BitSet(CachedChunk.size(height));
+        BlockState[] overview = new BlockState[256];
+        Map<String, List<BlockPos>> special = new HashMap<>();
+        List<BlockPos> ores = new ArrayList<>();
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                int surface = 128 + (int) (8 * Math.sin((chunkX * 16 + x) / 20.0) + 8 * Math.cos((chunkZ * 16 + z) / 20.0));
+                for (int y = 0; y <= surface; y++) {
+                    PathingBlockType type = y < 10 ? PathingBlockType.WATER : random.nextInt(20) == 0 ? PathingBlockType.AIR : PathingBlockType.SOLID;
+                    int index = CachedChunk.getPositionIndex(x, y, z);
+                    data.set(index, type.getBits()[0]);
+                    data.set(index + 1, type.getBits()[1]);
+                }
+                // the surface itself has to be solid so the height map lines up with the overview
+                int index = CachedChunk.getPositionIndex(x, surface, z);
+                data.set(index);
+                data.set(index + 1);
+                overview[z << 4 | x] = Blocks.GRASS_BLOCK.defaultBlockState();
+                if (random.nextInt(64) == 0) {
+                    ores.add(new BlockPos(x, dimension.minY() + random.nextInt(surface), z));
+                }
+            }
+        }
+        special.put("diamond_ore", ores);
+        return new CachedChunk(chunkX, chunkZ, height, data, overview, special, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public void save() {
+        region.updateCachedChunk(0, 0, region.getChunk(0, 0)); // otherwise there are no unsaved changes to write
+        region.save(directory);
+    }
+
+    @Benchmark
+    public CachedRegion load() {
+        CachedRegion loaded = new CachedRegion(0, 0, dimension);
+        loaded.load(directory);
+        return loaded;
+    }
+
+    @Benchmark
+    public void getBlock(Blackhole bh) {
+        for (int x = 0; x < 512; x += 3) {
+            for (int z = 0; z < 512; z += 3) {
+                for (int y = dimension.minY(); y < dimension.minY() + dimension.height(); y += 7) {
+                    bh.consume(region.getBlock(x, y, z));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalXZ;
+import baritone.api.utils.BetterBlockPos;
+import baritone.api.utils.PathCalculationResult;
+import baritone.bench.SyntheticWorld;
+import baritone.pathing.movement.CalculationContext;
+import baritone.utils.ArrayBlockSource;
+import baritone.utils.pathing.Favoring;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A whole path calculation across a {@link SyntheticWorld}, from one corner to the other
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AStarBenchmark {
+
+    private static final long TIMEOUT = 60000;
+
+    @Param({"42"})
+    public long seed;
+
+    private ArrayBlockSource world;
+    private BetterBlockPos start;
+    private Goal goal;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        world = SyntheticWorld.create(seed);
+        start = new BetterBlockPos(4, SyntheticWorld.standingY(world, 4, 4), 4);
+        goal = new GoalXZ(SyntheticWorld.SIZE - 4, SyntheticWorld.SIZE - 4);
+    }
+
+    @Benchmark
+    public IPath calculate() {
+        // a new context every time so that the precomputed block data starts out empty, like it does in game
+        CalculationContext context = new CalculationContext(world.createBlockStateInterface());
+        AStarPathFinder finder = new AStarPathFinder(start, start.x, start.y, start.z, goal, new Favoring(null, context), context);
+        PathCalculationResult result = finder.calculate(TIMEOUT, TIMEOUT);
+        return result.getPath().orElseThrow(() -> new IllegalStateException("No path: " + result.getType()));
+    }
+}
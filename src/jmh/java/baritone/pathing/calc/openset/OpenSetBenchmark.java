@@ -0,0 +1,107 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package baritone.pathing.calc.openset;
+
+import baritone.api.pathing.goals.Goal;
+import baritone.pathing.calc.PathNode;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays the same A* like sequence of inserts, decrease-keys and removals against every open set
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenSetBenchmark {
+
+    private static final Goal GOAL = new Goal() {
+        @Override
+        public boolean isInGoal(int x, int y, int z) {
+            return false;
+        }
+
+        @Override
+        public double heuristic(int x, int y, int z) {
+            return 0;
+        }
+    };
+
+    @Param({"binary", "pairing", "radix"})
+    public String type;
+
+    @Param({"100000"})
+    public int nodes;
+
+    private PathNode[] pool;
+    private double[] costs;
+    private int[] parents;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(1337);
+        pool = new PathNode[nodes];
+        costs = new double[nodes];
+        parents = new int[nodes];
+        for (int i = 0; i < nodes; i++) {
+            pool[i] = new PathNode(0, 0, 0, GOAL);
+            // costs grow roughly with the order nodes are found in, like they do in a real search
+            costs[i] = i * 0.1 + random.nextDouble() * 50;
+            parents[i] = random.nextInt(i + 1);
+        }
+    }
+
+    private IOpenSet create() {
+        switch (type) {
+            case "pairing":
+                return new PairingHeapOpenSet();
+            case "radix":
+                return new RadixHeapOpenSet();
+            default:
+                return new BinaryHeapOpenSet();
+        }
+    }
+
+    @Benchmark
+    public void search(Blackhole bh) {
+        IOpenSet set = create();
+        for (int i = 0; i < nodes; i++) {
+            PathNode node = pool[i];
+            node.heapPosition = -1;
+            node.combinedCost = costs[i];
+            set.insert(node);
+            // every few inserts, find a cheaper way to an earlier node that's still open
+            PathNode earlier = pool[parents[i]];
+            if ((i & 3) == 0 && earlier.isOpen()) {
+                earlier.combinedCost *= 0.9;
+                set.update(earlier);
+            }
+            if ((i & 1) == 1) {
+                bh.consume(set.removeLowest());
+            }
+        }
+        while (!set.isEmpty()) {
+            bh.consume(set.removeLowest());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.movement;
+
+import baritone.bench.SyntheticWorld;
+import baritone.utils.ArrayBlockSource;
+import baritone.utils.pathing.MutableMoveResult;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost calculation of each kind of movement from a fixed set of positions on the surface of a
+ * {@link SyntheticWorld}, with the block data already precomputed like it would be partway through a search
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovesBenchmark {
+
+    private static final int POSITIONS = 1024;
+
+    @Param // every move
+    public Moves move;
+
+    private CalculationContext context;
+    private int[] xs;
+    private int[] ys;
+    private int[] zs;
+    private final MutableMoveResult res = new MutableMoveResult();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ArrayBlockSource world = SyntheticWorld.create(42);
+        context = new CalculationContext(world.createBlockStateInterface());
+        Random random = new Random(42);
+        xs = new int[POSITIONS];
+        ys = new int[POSITIONS];
+        zs = new int[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            // stay away from the edges so that no move leaves the world
+            xs[i] = 8 + random.nextInt(SyntheticWorld.SIZE - 16);
+            zs[i] = 8 + random.nextInt(SyntheticWorld.SIZE - 16);
+            ys[i] = SyntheticWorld.standingY(world, xs[i], zs[i]);
+        }
+        for (Moves warm : Moves.values()) {
+            applyAll(warm, null);
+        }
+    }
+
+    private void applyAll(Moves moves, Blackhole bh) {
+        for (int i = 0; i < POSITIONS; i++) {
+            res.reset();
+            moves.apply(context, xs[i], ys[i], zs[i], res);
+            if (bh != null) {
+                bh.consume(res.cost);
+            }
+        }
+    }
+
+    @Benchmark
+    public void apply(Blackhole bh) {
+        applyAll(move, bh);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package baritone.pathing.precompute;
+
+import baritone.bench.HeadlessBootstrap;
+import baritone.pathing.movement.MovementHelper;
+import baritone.utils.ToolSet;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of every block state that can be answered without looking at neighboring blocks, against a table that's
+ * already filled in (the steady state during a search) and an empty one (the first search in a world)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrecomputedDataBenchmark {
+
+    private BlockState[] states;
+    private PrecomputedData warm;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HeadlessBootstrap.init();
+        List<BlockState> list = new ArrayList<>();
+        for (BlockState state : Block.BLOCK_STATE_REGISTRY) {
+            // the bsi is only needed for the MAYBE cases, and there isn't one here
+            if (MovementHelper.canWalkOnBlockState(state) != Ternary.MAYBE
+                    && MovementHelper.canWalkThroughBlockState(state) != Ternary.MAYBE
+                    && MovementHelper.fullyPassableBlockState(state) != Ternary.MAYBE) {
+                list.add(state);
+            }
+        }
+        states = list.toArray(new BlockState[0]);
+        warm = new PrecomputedData(new ToolSet(null));
+        lookupAll(warm, null);
+    }
+
+    private void lookupAll(PrecomputedData data, Blackhole bh) {
+        for (BlockState state : states) {
+            boolean on = data.canWalkOn(null, 0, 0, 0, state);
+            boolean through = data.canWalkThrough(null, 0, 0, 0, state);
+            boolean passable = data.fullyPassable(null, 0, 0, 0, state);
+            if (bh != null) {
+                bh.consume(on);
+                bh.consume(through);
+                bh.consume(passable);
+            }
+        }
+    }
+
+    @Benchmark
+    public void filled(Blackhole bh) {
+        lookupAll(warm, bh);
+    }
+
+    @Benchmark
+    public void empty(Blackhole bh) {
+        lookupAll(new PrecomputedData(new ToolSet(null)), bh);
+    }
+}
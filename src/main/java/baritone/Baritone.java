@@ -26,6 +26,7 @@ import baritone.api.process.IBaritoneProcess;
 import baritone.api.process.IElytraProcess;
 import baritone.api.utils.IPlayerContext;
 import baritone.behavior.*;
+import baritone.cache.ChunkSnapshots;
 import baritone.cache.WorldProvider;
 import baritone.command.manager.CommandManager;
 import baritone.event.GameEventHandler;
@@ -44,6 +45,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -57,8 +59,15 @@ public class Baritone implements IBaritone {
 
     private static final ThreadPoolExecutor threadPool;
 
+    /**
+     * For reading cached regions from disk in the background, so a burst of them can't take over {@link #threadPool}
+     */
+    private static final ThreadPoolExecutor ioThreadPool;
+
     static {
         threadPool = new ThreadPoolExecutor(4, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>());
+        ioThreadPool = new ThreadPoolExecutor(2, 2, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        ioThreadPool.allowCoreThreadTimeOut(true);
     }
 
     private final Minecraft mc;
@@ -87,6 +96,7 @@ public class Baritone implements IBaritone {
 
     private final IPlayerContext playerContext;
     private final WorldProvider worldProvider;
+    private final ChunkSnapshots chunkSnapshots;
 
     public BlockStateInterface bsi;
 
@@ -127,6 +137,8 @@ public class Baritone implements IBaritone {
         }
 
         this.worldProvider = new WorldProvider(this);
+        this.chunkSnapshots = new ChunkSnapshots();
+        this.gameEventHandler.registerEventListener(this.chunkSnapshots);
         this.selectionManager = new SelectionManager(this);
         this.commandManager = new CommandManager(this);
     }
@@ -225,6 +237,10 @@ public class Baritone implements IBaritone {
         return this.worldProvider;
     }
 
+    public ChunkSnapshots getChunkSnapshots() {
+        return this.chunkSnapshots;
+    }
+
     @Override
     public IEventBus getGameEventHandler() {
         return this.gameEventHandler;
@@ -261,4 +277,8 @@ public class Baritone implements IBaritone {
     public static Executor getExecutor() {
         return threadPool;
     }
+
+    public static Executor getIOExecutor() {
+        return ioThreadPool;
+    }
 }
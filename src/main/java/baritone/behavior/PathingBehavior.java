@@ -20,28 +20,49 @@ package baritone.behavior;
 import baritone.Baritone;
 import baritone.api.behavior.IPathingBehavior;
 import baritone.api.event.events.*;
+import baritone.api.event.events.type.EventState;
 import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.calc.PathCalculationHistory;
+import baritone.api.pathing.calc.PathCalculationMetrics;
 import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalBlock;
+import baritone.api.pathing.goals.GoalComposite;
 import baritone.api.pathing.goals.GoalXZ;
 import baritone.api.process.PathingCommand;
 import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.Helper;
+import baritone.api.utils.Pair;
 import baritone.api.utils.PathCalculationResult;
 import baritone.api.utils.interfaces.IGoalRenderPos;
 import baritone.pathing.calc.AStarPathFinder;
 import baritone.pathing.calc.AbstractNodeCostSearch;
+import baritone.pathing.calc.CompactAStarPathFinder;
+import baritone.pathing.calc.CorridorWaypointGoal;
+import baritone.pathing.calc.ParallelAStarPathFinder;
+import baritone.pathing.calc.SearchStatePool;
 import baritone.pathing.movement.CalculationContext;
 import baritone.pathing.movement.MovementHelper;
+import baritone.pathing.movement.Moves;
+import baritone.pathing.path.CutoffPath;
 import baritone.pathing.path.PathExecutor;
+import baritone.pathing.path.SplicedPath;
+import baritone.pathing.precompute.PrecomputedData;
 import baritone.process.ElytraProcess;
 import baritone.utils.PathRenderer;
 import baritone.utils.PathingCommandContext;
+import baritone.utils.pathing.AvoidanceField;
 import baritone.utils.pathing.Favoring;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Objects;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
 import net.minecraft.core.BlockPos;
 
 public final class PathingBehavior extends Behavior implements IPathingBehavior, Helper {
@@ -72,8 +93,27 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
 
     private BetterBlockPos expectedSegmentStart;
 
+    /**
+     * The calculation whose stable prefix is being walked as {@link #current}, and that prefix
+     *
+     * @see baritone.api.Settings#pathingStreamPrefix
+     */
+    private AbstractNodeCostSearch streamedFrom;
+    private IPath streamedPrefix;
+
     private final LinkedBlockingQueue<PathEvent> toDispatch = new LinkedBlockingQueue<>();
 
+    private final SearchStatePool searchStatePool = new SearchStatePool();
+
+    private final AvoidanceField avoidanceField = new AvoidanceField();
+
+    /**
+     * The io executor has more than one thread, this keeps two appends from interleaving or both writing a header
+     */
+    private static final Object METRICS_FILE_LOCK = new Object();
+
+    private final PathCalculationHistory calculationHistory = new PathCalculationHistory(Baritone.settings().pathingMetricsHistorySize.value);
+
     public PathingBehavior(Baritone baritone) {
         super(baritone);
     }
@@ -91,6 +131,13 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
         }
     }
 
+    @Override
+    public void onWorldEvent(WorldEvent event) {
+        if (event.getState() == EventState.POST && event.getWorld() != null) {
+            PrecomputedData.prepare();
+        }
+    }
+
     @Override
     public void onTick(TickEvent event) {
         dispatchEvents();
@@ -107,6 +154,14 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
         dispatchEvents();
     }
 
+    @Override
+    public void onBlockChange(BlockChangeEvent event) {
+        PathExecutor current = this.current; // can be replaced by a calculation thread at any time
+        if (current != null) {
+            current.onBlockChange(event.getBlocks().stream().map(Pair::first).collect(Collectors.toList()));
+        }
+    }
+
     @Override
     public void onPlayerSprintState(SprintStateEvent event) {
         if (isPathing()) {
@@ -133,7 +188,19 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
         }
         synchronized (pathPlanLock) {
             synchronized (pathCalcLock) {
-                if (inProgress != null) {
+                if (inProgress != null && current == null && inProgress != streamedFrom) {
+                    Optional<IPath> prefix = inProgress.takeStablePrefix();
+                    if (prefix.isPresent() && prefix.get().positions().contains(expectedSegmentStart)) {
+                        logDebug("Walking the start of the path while the rest is still calculating");
+                        streamedFrom = inProgress;
+                        streamedPrefix = prefix.get();
+                        current = new PathExecutor(this, streamedPrefix);
+                        queuePathEvent(PathEvent.CALC_FINISHED_NOW_EXECUTING);
+                        resetEstimatedTicksToGoal();
+                    }
+                }
+                boolean walkingPrefix = inProgress == streamedFrom && current != null && current.getPath() == streamedPrefix;
+                if (inProgress != null && !walkingPrefix) { // if we're walking the start of inProgress's path, it's right by definition
                     // we are calculating
                     // are we calculating the right thing though? 🤔
                     BetterBlockPos calcFrom = inProgress.getStart();
@@ -152,6 +219,7 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
             }
             safeToCancel = current.onTick();
             if (current.failed() || current.finished()) {
+                PathExecutor ended = current;
                 current = null;
                 if (goal == null || goal.isInGoal(ctx.playerFeet())) {
                     logDebug("All done. At " + goal);
@@ -188,8 +256,11 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
                         return;
                     }
                     // we aren't calculating
-                    queuePathEvent(PathEvent.CALC_STARTED);
-                    findPathInNewThread(expectedSegmentStart, true, context);
+                    // a repair doesn't count as a calculation, if it fails the real one queues CALC_STARTED instead
+                    if (!repairPathInNewThread(expectedSegmentStart, ended)) {
+                        queuePathEvent(PathEvent.CALC_STARTED);
+                        findPathInNewThread(expectedSegmentStart, true, context);
+                    }
                 }
                 return;
             }
@@ -308,6 +379,11 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
         return Optional.ofNullable(inProgress);
     }
 
+    @Override
+    public PathCalculationHistory getCalculationHistory() {
+        return calculationHistory;
+    }
+
     public boolean isSafeToCancel() {
         if (current == null) {
             return !baritone.getElytraProcess().isActive() || baritone.getElytraProcess().isSafeToCancel();
@@ -494,8 +570,12 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
             failureTimeout = Baritone.settings().planAheadFailureTimeoutMS.value;
         }
         AbstractNodeCostSearch pathfinder = createPathfinder(start, goal, current == null ? null : current.getPath(), context);
-        if (!Objects.equals(pathfinder.getGoal(), goal)) { // will return the exact same object if simplification didn't happen
-            logDebug("Simplifying " + goal.getClass() + " to GoalXZ due to distance");
+        if (current == null && Baritone.settings().pathingStreamPrefix.value) {
+            // nothing to walk in the meantime, so start on whatever the search has settled on
+            pathfinder.streamStablePrefix(Baritone.settings().pathingStreamPrefixStableMS.value, Baritone.settings().pathingStreamPrefixMinLength.value + 1);
+        }
+        if (Baritone.settings().pathingMaterializeRegion.value) {
+            pathfinder.materializeRegion(Baritone.settings().pathingMaterializeMargin.value, Baritone.settings().pathingMaterializeMaxVolume.value);
         }
         inProgress = pathfinder;
         Baritone.getExecutor().execute(() -> {
@@ -504,7 +584,13 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
             }
 
             PathCalculationResult calcResult = pathfinder.calculate(primaryTimeout, failureTimeout);
+            pathfinder.getMetrics().ifPresent(this::recordMetrics);
             synchronized (pathPlanLock) {
+                if (streamedFrom == pathfinder) {
+                    streamedFrom = null;
+                    calcResult = afterStreamedPrefix(calcResult, streamedPrefix);
+                    streamedPrefix = null;
+                }
                 Optional<PathExecutor> executor = calcResult.getPath().map(p -> new PathExecutor(PathingBehavior.this, p));
                 if (current == null) {
                     if (executor.isPresent()) {
@@ -553,22 +639,186 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
         });
     }
 
+    /**
+     * The start of this calculation's path is already being walked, so only the rest of it is still needed
+     *
+     * @param result The result of the calculation that {@code prefix} came from
+     * @param prefix The stable prefix that was handed out early
+     * @return The result, with the path starting where {@code prefix} ends
+     */
+    private PathCalculationResult afterStreamedPrefix(PathCalculationResult result, IPath prefix) {
+        if (result.getType() == PathCalculationResult.Type.CANCELLATION || result.getType() == PathCalculationResult.Type.EXCEPTION || !result.getPath().isPresent()) {
+            return result;
+        }
+        IPath path = result.getPath().get();
+        List<BetterBlockPos> walked = prefix.positions();
+        if (path.length() > walked.size() && path.positions().subList(0, walked.size()).equals(walked)) {
+            return new PathCalculationResult(result.getType(), new CutoffPath(path, walked.size() - 1, path.length() - 1));
+        }
+        // the final path either ends within the prefix or went somewhere else after all (e.g. post processing cut it)
+        logDebug("Discarding calculated path, it doesn't continue the part that's already being walked");
+        return new PathCalculationResult(PathCalculationResult.Type.FAILURE);
+    }
+
+    /**
+     * If the path failed because a change in the world made some of its movements impossible, search for a short
+     * detour from the start back onto the rest of it, instead of recalculating the whole thing from scratch.
+     * <p>
+     * If the detour can't be found in time, nothing happens, and the regular calculation is started on the next tick.
+     * No {@link PathEvent#CALC_STARTED} is queued for the repair, so there is no {@link PathEvent#CALC_FAILED} to go with
+     * it either.
+     *
+     * @param start   The position to search from
+     * @param damaged The executor of the path that failed
+     * @return Whether a repair was started
+     */
+    private boolean repairPathInNewThread(final BlockPos start, PathExecutor damaged) {
+        // same as findPathInNewThread, this must be called with synchronization on pathCalcLock
+        if (!Baritone.settings().pathRepair.value || !damaged.failed() || damaged.getInvalidatedMovement() == -1) {
+            return false;
+        }
+        if (goal == null || !context.safeForThreadedUse) {
+            return false;
+        }
+        IPath path = damaged.getPath();
+        // rejoin anywhere after the last movement that was made impossible
+        int firstRejoin = damaged.getInvalidatedMovement() + 1;
+        int lastRejoin = Math.min(firstRejoin + Baritone.settings().pathRepairRejoinPositions.value, path.length() - 1);
+        Goal[] rejoin = new Goal[lastRejoin - firstRejoin + 1];
+        for (int i = 0; i < rejoin.length; i++) {
+            rejoin[i] = new GoalBlock(path.positions().get(firstRejoin + i));
+        }
+        AbstractNodeCostSearch pathfinder = createPathfinder(start, new GoalComposite(rejoin), path, context);
+        long timeout = Baritone.settings().pathRepairTimeoutMS.value;
+        inProgress = pathfinder;
+        Baritone.getExecutor().execute(() -> {
+            logDebug("Searching for a detour back onto the path from " + start);
+            PathCalculationResult calcResult = pathfinder.calculate(timeout, timeout);
+            pathfinder.getMetrics().ifPresent(this::recordMetrics);
+            synchronized (pathPlanLock) {
+                Optional<SplicedPath> repaired = Optional.empty();
+                if (calcResult.getType() == PathCalculationResult.Type.SUCCESS_TO_GOAL) {
+                    repaired = calcResult.getPath().flatMap(detour -> rejoin(detour, path));
+                }
+                if (current == null && repaired.isPresent() && repaired.get().positions().contains(expectedSegmentStart)) {
+                    logDebug("Repaired path with a detour, " + calcResult.getPath().get().getNumNodesConsidered() + " nodes considered");
+                    queuePathEvent(PathEvent.CALC_FINISHED_NOW_EXECUTING);
+                    current = new PathExecutor(PathingBehavior.this, repaired.get());
+                } else {
+                    logDebug("Unable to repair path, recalculating");
+                }
+                synchronized (pathCalcLock) {
+                    inProgress = null;
+                }
+            }
+        });
+        return true;
+    }
+
+    private void recordMetrics(PathCalculationMetrics metrics) {
+        calculationHistory.add(metrics);
+        String file = Baritone.settings().pathingMetricsFile.value;
+        if (file.isEmpty()) {
+            return;
+        }
+        Path path = baritone.getDirectory().resolve(file);
+        StringBuilder header = new StringBuilder("startTime,finder,result,durationMillis,nodesExpanded,nodesCreated,movementsConsidered,chunkBorderFetchFailures,openSetHighWaterMark,heuristicNanos,gcCount,gcMillis");
+        StringBuilder line = new StringBuilder()
+                .append(metrics.getStartTime()).append(',').append(metrics.getFinder()).append(',').append(metrics.getResult()).append(',')
+                .append(metrics.getDurationMillis()).append(',').append(metrics.getNodesExpanded()).append(',').append(metrics.getNodesCreated()).append(',')
+                .append(metrics.getMovementsConsidered()).append(',').append(metrics.getChunkBorderFetchFailures()).append(',')
+                .append(metrics.getOpenSetHighWaterMark()).append(',').append(metrics.getHeuristicNanos()).append(',')
+                .append(metrics.getGcCount()).append(',').append(metrics.getGcMillis());
+        for (Moves moves : Moves.values()) {
+            String name = moves.name();
+            header.append(',').append(name).append("Calls,").append(name).append("Nanos");
+            Long nanos = metrics.getMovementNanos().get(name);
+            // nanos are left empty when movements weren't timed
+            line.append(',').append(metrics.getMovementCalls().getOrDefault(name, 0)).append(',').append(nanos == null ? "" : nanos);
+        }
+        // don't make the pathing thread wait for the disk
+        Baritone.getIOExecutor().execute(() -> {
+            synchronized (METRICS_FILE_LOCK) {
+                List<String> lines = new ArrayList<>();
+                if (!Files.exists(path)) {
+                    lines.add(header.toString());
+                }
+                lines.add(line.toString());
+                try {
+                    Files.write(path, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                } catch (IOException e) {
+                    logDebug("Unable to write path calculation metrics to " + path + ": " + e);
+                }
+            }
+        });
+    }
+
+    private static Optional<SplicedPath> rejoin(IPath detour, IPath damaged) {
+        int index = damaged.positions().indexOf(detour.getDest());
+        if (index == -1) {
+            return Optional.empty();
+        }
+        IPath rest = new CutoffPath(damaged, index, damaged.length() - 1);
+        return SplicedPath.trySplice(detour, rest, true, damaged.getGoal());
+    }
+
+    /**
+     * If the goal is far enough away, have the calculation plan a rough route to it across whole chunks once it starts,
+     * and path to a waypoint some distance along that route instead
+     *
+     * @return The goal to give the path finder, the same goal if it isn't far enough away
+     */
+    private static Goal corridorWaypoint(BlockPos start, Goal goal, CalculationContext context) {
+        BlockPos target;
+        if (goal instanceof GoalXZ) {
+            target = new BlockPos(((GoalXZ) goal).getX(), start.getY(), ((GoalXZ) goal).getZ());
+        } else if (goal instanceof IGoalRenderPos) {
+            target = ((IGoalRenderPos) goal).getGoalPos();
+        } else {
+            return goal;
+        }
+        if (context.world.dimensionType().hasCeiling()) {
+            return goal; // the chunk cache only has the roof as the surface
+        }
+        double dx = target.getX() - start.getX();
+        double dz = target.getZ() - start.getZ();
+        int minDistance = Baritone.settings().hierarchicalPathingMinDistance.value;
+        if (dx * dx + dz * dz < (double) minDistance * minDistance) {
+            return goal;
+        }
+        // the route itself is planned on the calculation's thread, see CorridorWaypointGoal
+        return new CorridorWaypointGoal(start, target, goal, context);
+    }
+
     private AbstractNodeCostSearch createPathfinder(BlockPos start, Goal goal, IPath previous, CalculationContext context) {
         Goal transformed = goal;
         if (Baritone.settings().simplifyUnloadedYCoord.value && goal instanceof IGoalRenderPos) {
             BlockPos pos = ((IGoalRenderPos) goal).getGoalPos();
             if (!context.bsi.worldContainsLoadedChunk(pos.getX(), pos.getZ())) {
+                logDebug("Simplifying " + goal.getClass() + " to GoalXZ due to distance");
                 transformed = new GoalXZ(pos.getX(), pos.getZ());
             }
         }
-        Favoring favoring = new Favoring(context.getBaritone().getPlayerContext(), previous, context);
+        if (Baritone.settings().hierarchicalPathing.value) {
+            transformed = corridorWaypoint(start, transformed, context);
+        }
+        int threads = Baritone.settings().pathingThreads.value;
+        // the parallel search keeps a map and heap per thread, so there's nothing to reuse
+        SearchStatePool.State state = threads <= 1 && Baritone.settings().pathingReuseSearchState.value ? searchStatePool.acquire() : null;
+        Favoring favoring = new Favoring(context.getBaritone().getPlayerContext(), previous, context, avoidanceField);
         BetterBlockPos feet = ctx.playerFeet();
         var realStart = new BetterBlockPos(start);
         var sub = feet.subtract(realStart);
         if (feet.getY() == realStart.getY() && Math.abs(sub.getX()) <= 1 && Math.abs(sub.getZ()) <= 1) {
             realStart = feet;
         }
-        return new AStarPathFinder(realStart, start.getX(), start.getY(), start.getZ(), transformed, favoring, context);
+        if (threads > 1) {
+            return new ParallelAStarPathFinder(realStart, start.getX(), start.getY(), start.getZ(), transformed, favoring, context, threads);
+        }
+        if (Baritone.settings().compactPathNodeStore.value) {
+            return new CompactAStarPathFinder(realStart, start.getX(), start.getY(), start.getZ(), transformed, favoring, context, state);
+        }
+        return new AStarPathFinder(realStart, start.getX(), start.getY(), start.getZ(), transformed, favoring, context, state);
 
     }
 
@@ -248,6 +248,24 @@ public final class CachedChunk {
         }
     }
 
+    /**
+     * @param x The x position, relative to this chunk
+     * @param z The z position, relative to this chunk
+     * @return The height of the highest non air block in the column, relative to the bottom of the world
+     */
+    public final int getSurfaceHeight(int x, int z) {
+        return heightMap[z << 4 | x];
+    }
+
+    /**
+     * @param x The x position, relative to this chunk
+     * @param z The z position, relative to this chunk
+     * @return Whether the highest non air block in the column is solid, as opposed to water or something to avoid
+     */
+    public final boolean isSurfaceSolid(int x, int z) {
+        return getType(getPositionIndex(x, heightMap[z << 4 | x], z)) == PathingBlockType.SOLID;
+    }
+
     public final BlockState[] getOverview() {
         return overview;
     }
@@ -106,6 +106,15 @@ public final class CachedRegion implements ICachedRegion {
         return res;
     }
 
+    /**
+     * @param chunkX The chunk x position, relative to this region
+     * @param chunkZ The chunk z position, relative to this region
+     * @return The cached chunk, or null if it isn't cached
+     */
+    public final CachedChunk getChunk(int chunkX, int chunkZ) {
+        return chunks[chunkX][chunkZ];
+    }
+
     public final synchronized void updateCachedChunk(int chunkX, int chunkZ, CachedChunk chunk) {
         this.chunks[chunkX][chunkZ] = chunk;
         hasUnsavedChanges = true;
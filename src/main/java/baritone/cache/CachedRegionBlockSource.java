@@ -0,0 +1,93 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.utils.BlockStateInterface;
+import baritone.utils.IBlockSource;
+import baritone.utils.pathing.BetterWorldBorder;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.border.WorldBorder;
+import net.minecraft.world.level.dimension.DimensionType;
+
+/**
+ * Reads blocks straight out of the region files of a cached world, without a {@link CachedWorld} and so without a
+ * running client. Regions are loaded the first time they're needed and kept for as long as this source is.
+ * <p>
+ * The cache only keeps a rough idea of most blocks, see {@link baritone.utils.pathing.PathingBlockType}, so paths
+ * calculated against this are the same ones that {@link baritone.api.Settings#pathThroughCachedOnly} would give.
+ */
+public final class CachedRegionBlockSource implements IBlockSource {
+
+    private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+
+    private final String directory;
+    private final DimensionType dimension;
+    private final Long2ObjectMap<CachedRegion> regions = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * The most recently used region, there's great locality in lookups so this skips the map most of the time
+     */
+    private volatile CachedRegion prev;
+
+    /**
+     * @param directory The directory with the region files in it, e.g. {@code baritone/<server>/DIM0}
+     * @param dimension The dimension the regions were cached in
+     */
+    public CachedRegionBlockSource(String directory, DimensionType dimension) {
+        this.directory = directory;
+        this.dimension = dimension;
+    }
+
+    @Override
+    public BlockState get(int x, int y, int z) {
+        BlockState state = getRegion(x >> 9, z >> 9).getBlock(x & 511, y, z & 511);
+        return state == null ? AIR : state;
+    }
+
+    @Override
+    public boolean isLoaded(int x, int z) {
+        return getRegion(x >> 9, z >> 9).isCached(x & 511, z & 511);
+    }
+
+    /**
+     * @return A {@link BlockStateInterface} that reads from this source, with the default world border
+     */
+    public BlockStateInterface createBlockStateInterface() {
+        return new BlockStateInterface(this, dimension.minY(), dimension.height(), new BetterWorldBorder(new WorldBorder()));
+    }
+
+    private CachedRegion getRegion(int regionX, int regionZ) {
+        CachedRegion region = prev;
+        if (region != null && region.getX() == regionX && region.getZ() == regionZ) {
+            return region;
+        }
+        synchronized (regions) {
+            region = regions.computeIfAbsent(ChunkPos.asLong(regionX, regionZ), id -> {
+                CachedRegion loaded = new CachedRegion(regionX, regionZ, dimension);
+                loaded.load(directory);
+                return loaded;
+            });
+        }
+        prev = region;
+        return region;
+    }
+}
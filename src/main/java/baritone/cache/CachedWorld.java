@@ -24,8 +24,6 @@ import baritone.api.cache.ICachedWorld;
 import baritone.api.cache.IWorldData;
 import baritone.api.utils.Helper;
 import com.google.common.cache.CacheBuilder;
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.chunk.LevelChunk;
@@ -37,6 +35,8 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 
 /**
@@ -51,9 +51,10 @@ public final class CachedWorld implements ICachedWorld, Helper {
     private static final int REGION_MAX = 30_000_000 / 512 + 1;
 
     /**
-     * A map of all of the cached regions.
+     * A map of all of the cached regions. A region is put in here as soon as something starts loading it from disk, and
+     * its future completes once that's done, so that it's only ever loaded once and nobody has to lock the whole map.
      */
-    private Long2ObjectMap<CachedRegion> cachedRegions = new Long2ObjectOpenHashMap<>();
+    private final ConcurrentHashMap<Long, CompletableFuture<CachedRegion>> cachedRegions = new ConcurrentHashMap<>();
 
     /**
      * The directory that the cached region files are saved to
@@ -231,8 +232,18 @@ public final class CachedWorld implements ICachedWorld, Helper {
         return new BlockPos((mostRecentlyModified.x << 4) + 8, 0, (mostRecentlyModified.z << 4) + 8);
     }
 
-    private synchronized List<CachedRegion> allRegions() {
-        return new ArrayList<>(this.cachedRegions.values());
+    /**
+     * @return Every region that's done loading
+     */
+    private List<CachedRegion> allRegions() {
+        List<CachedRegion> regions = new ArrayList<>();
+        for (CompletableFuture<CachedRegion> future : this.cachedRegions.values()) {
+            CachedRegion region = future.getNow(null);
+            if (region != null) {
+                regions.add(region);
+            }
+        }
+        return regions;
     }
 
     @Override
@@ -248,30 +259,63 @@ public final class CachedWorld implements ICachedWorld, Helper {
     }
 
     @Override
-    public final synchronized CachedRegion getRegion(int regionX, int regionZ) {
-        return cachedRegions.get(getRegionID(regionX, regionZ));
+    public final CachedRegion getRegion(int regionX, int regionZ) {
+        CompletableFuture<CachedRegion> future = cachedRegions.get(getRegionID(regionX, regionZ));
+        // a region that's still loading isn't there yet, same as one that was never loaded
+        return future == null ? null : future.getNow(null);
     }
 
     /**
      * Returns the region at the specified region coordinates. If a
-     * region is not found, then a new one is created.
+     * region is not found, then a new one is created. This waits for it
+     * to be loaded from disk, so don't call it from the main thread.
      *
      * @param regionX The region X coordinate
      * @param regionZ The region Z coordinate
      * @return The region located at the specified coordinates
      */
-    private synchronized CachedRegion getOrCreateRegion(int regionX, int regionZ) {
-        return cachedRegions.computeIfAbsent(getRegionID(regionX, regionZ), id -> {
-            CachedRegion newRegion = new CachedRegion(regionX, regionZ, dimension);
-            newRegion.load(this.directory);
-            return newRegion;
-        });
+    public CachedRegion getOrCreateRegion(int regionX, int regionZ) {
+        CompletableFuture<CachedRegion> created = new CompletableFuture<>();
+        CompletableFuture<CachedRegion> existing = cachedRegions.putIfAbsent(getRegionID(regionX, regionZ), created);
+        if (existing != null) {
+            // if someone else is loading it, only wait for that, everything else carries on
+            return existing.join();
+        }
+        loadRegion(regionX, regionZ, created);
+        return created.join();
     }
 
     public void tryLoadFromDisk(int regionX, int regionZ) {
         getOrCreateRegion(regionX, regionZ);
     }
 
+    /**
+     * Loads the region at the specified region coordinates from disk in the background, if nothing has started loading
+     * it already. Unlike {@link #getOrCreateRegion}, this doesn't wait for it.
+     *
+     * @param regionX The region X coordinate
+     * @param regionZ The region Z coordinate
+     */
+    public void prefetchRegion(int regionX, int regionZ) {
+        if (!isRegionInWorld(regionX, regionZ)) {
+            return;
+        }
+        CompletableFuture<CachedRegion> created = new CompletableFuture<>();
+        if (cachedRegions.putIfAbsent(getRegionID(regionX, regionZ), created) == null) {
+            Baritone.getIOExecutor().execute(() -> loadRegion(regionX, regionZ, created));
+        }
+    }
+
+    private void loadRegion(int regionX, int regionZ, CompletableFuture<CachedRegion> future) {
+        CachedRegion region = new CachedRegion(regionX, regionZ, dimension);
+        try {
+            region.load(this.directory);
+        } finally {
+            // even if loading failed, so that nobody waits forever, the region just starts out empty like a new one
+            future.complete(region);
+        }
+    }
+
     /**
      * Returns the region ID based on the region coordinates. 0 will be
      * returned if the specified region coordinates are out of bounds.
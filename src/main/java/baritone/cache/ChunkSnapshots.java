@@ -0,0 +1,214 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package baritone.cache;
+
+import baritone.api.event.events.BlockChangeEvent;
+import baritone.api.event.events.ChunkEvent;
+import baritone.api.event.events.type.EventState;
+import baritone.api.event.listener.AbstractGameEventListener;
+import baritone.api.utils.Pair;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.client.multiplayer.ClientChunkCache;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.chunk.status.ChunkStatus;
+
+import java.util.BitSet;
+
+/**
+ * Copies of the block data of the loaded chunks around the player, for path calculations to read on their own thread
+ * while the main thread keeps changing the real chunks.
+ * <p>
+ * Copying every section for every calculation would be far too slow, so this remembers the copies from the last
+ * {@link #capture} and which sections changed since then, according to block change and chunk events. Only those get
+ * copied again, everything else is shared with the previous snapshot. Copies are never written to after they're made,
+ * so sharing them between snapshots and threads is safe.
+ *
+ * @see baritone.api.Settings#pathingChunkSnapshots
+ */
+public final class ChunkSnapshots implements AbstractGameEventListener {
+
+    private Level world;
+    private Long2ObjectOpenHashMap<Chunk> chunks = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * Sections that changed since the last capture, by chunk
+     */
+    private final Long2ObjectOpenHashMap<BitSet> dirty = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * Whether any chunk was loaded or unloaded since the last capture
+     */
+    private boolean chunksChanged;
+
+    private Snapshot last;
+    private int lastCenterX;
+    private int lastCenterZ;
+    private int lastRadius;
+
+    /**
+     * Has to be called on the main thread
+     *
+     * @param world   The world to capture
+     * @param centerX The x coordinate of the chunk to capture around
+     * @param centerZ The z coordinate of the chunk to capture around
+     * @param radius  How many chunks to capture in each direction from the center
+     * @return A snapshot of the chunks in range that are loaded in the world right now
+     */
+    public synchronized Snapshot capture(Level world, int centerX, int centerZ, int radius) {
+        if (world != this.world) {
+            this.world = world;
+            chunks = new Long2ObjectOpenHashMap<>();
+            dirty.clear();
+            last = null;
+        }
+        if (last != null && !chunksChanged && dirty.isEmpty() && centerX == lastCenterX && centerZ == lastCenterZ && radius == lastRadius) {
+            return last; // nothing to update
+        }
+        ClientChunkCache provider = (ClientChunkCache) world.getChunkSource();
+        Long2ObjectOpenHashMap<Chunk> next = new Long2ObjectOpenHashMap<>((2 * radius + 1) * (2 * radius + 1));
+        for (int chunkX = centerX - radius; chunkX <= centerX + radius; chunkX++) {
+            for (int chunkZ = centerZ - radius; chunkZ <= centerZ + radius; chunkZ++) {
+                LevelChunk chunk = provider.getChunk(chunkX, chunkZ, ChunkStatus.FULL, false);
+                if (chunk == null || chunk.isEmpty()) {
+                    continue;
+                }
+                long key = ChunkPos.asLong(chunkX, chunkZ);
+                Chunk previous = chunks.get(key);
+                BitSet changed = dirty.get(key);
+                if (previous == null || previous.source != chunk) {
+                    next.put(key, Chunk.copy(chunk));
+                } else if (changed != null) {
+                    next.put(key, previous.update(chunk, changed));
+                } else {
+                    next.put(key, previous);
+                }
+            }
+        }
+        chunks = next;
+        dirty.clear();
+        chunksChanged = false;
+        last = new Snapshot(next);
+        lastCenterX = centerX;
+        lastCenterZ = centerZ;
+        lastRadius = radius;
+        return last;
+    }
+
+    @Override
+    public synchronized void onChunkEvent(ChunkEvent event) {
+        if (event.getState() == EventState.POST) {
+            // new data for the whole chunk, or it's gone
+            chunks.remove(ChunkPos.asLong(event.getX(), event.getZ()));
+            dirty.remove(ChunkPos.asLong(event.getX(), event.getZ()));
+            chunksChanged = true;
+        }
+    }
+
+    @Override
+    public synchronized void onBlockChange(BlockChangeEvent event) {
+        long key = event.getChunkPos().toLong();
+        Chunk chunk = chunks.get(key);
+        if (chunk == null) {
+            return; // will be copied entirely anyway
+        }
+        BitSet changed = dirty.computeIfAbsent(key, k -> new BitSet());
+        for (Pair<BlockPos, BlockState> block : event.getBlocks()) {
+            changed.set(chunk.source.getSectionIndex(block.first().getY()));
+        }
+    }
+
+    /**
+     * An immutable view of the loaded chunks in range at the time it was captured
+     */
+    public static final class Snapshot {
+
+        private final Long2ObjectOpenHashMap<Chunk> chunks;
+
+        private Snapshot(Long2ObjectOpenHashMap<Chunk> chunks) {
+            this.chunks = chunks;
+        }
+
+        /**
+         * @return The chunk at these chunk coordinates, or null if it wasn't loaded or in range
+         */
+        public Chunk getChunk(int chunkX, int chunkZ) {
+            return chunks.get(ChunkPos.asLong(chunkX, chunkZ));
+        }
+    }
+
+    public static final class Chunk {
+
+        /**
+         * The chunk this was copied from. Only used on the main thread, to tell whether the copy is still of it.
+         */
+        private final LevelChunk source;
+
+        public final int x;
+        public final int z;
+
+        /**
+         * Copies of the block data of every section, null for sections that are only air
+         */
+        private final PalettedContainer<BlockState>[] sections;
+
+        private Chunk(LevelChunk source, PalettedContainer<BlockState>[] sections) {
+            this.source = source;
+            this.x = source.getPos().x;
+            this.z = source.getPos().z;
+            this.sections = sections;
+        }
+
+        /**
+         * @param sectionIndex The section, counted from the bottom of the world
+         * @return The block data of that section, or null if it's only air
+         */
+        public PalettedContainer<BlockState> getSection(int sectionIndex) {
+            return sections[sectionIndex];
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Chunk copy(LevelChunk chunk) {
+            LevelChunkSection[] sections = chunk.getSections();
+            PalettedContainer<BlockState>[] copies = new PalettedContainer[sections.length];
+            for (int i = 0; i < sections.length; i++) {
+                copies[i] = copy(sections[i]);
+            }
+            return new Chunk(chunk, copies);
+        }
+
+        private Chunk update(LevelChunk chunk, BitSet changed) {
+            LevelChunkSection[] sections = chunk.getSections();
+            PalettedContainer<BlockState>[] copies = this.sections.clone();
+            for (int i = changed.nextSetBit(0); i >= 0 && i < sections.length; i = changed.nextSetBit(i + 1)) {
+                copies[i] = copy(sections[i]);
+            }
+            return new Chunk(chunk, copies);
+        }
+
+        private static PalettedContainer<BlockState> copy(LevelChunkSection section) {
+            return section.hasOnlyAir() ? null : section.getStates().copy();
+        }
+    }
+}
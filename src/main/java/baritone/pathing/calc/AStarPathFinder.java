@@ -22,14 +22,15 @@ import baritone.api.pathing.calc.IPath;
 import baritone.api.pathing.goals.Goal;
 import baritone.api.pathing.movement.ActionCosts;
 import baritone.api.utils.BetterBlockPos;
-import baritone.api.utils.SettingsUtil;
-import baritone.pathing.calc.openset.BinaryHeapOpenSet;
+import baritone.pathing.calc.openset.IOpenSet;
 import baritone.pathing.movement.CalculationContext;
 import baritone.pathing.movement.Moves;
-import baritone.utils.pathing.BetterWorldBorder;
+import baritone.utils.BlockStateInterface;
 import baritone.utils.pathing.Favoring;
 import baritone.utils.pathing.MutableMoveResult;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -43,27 +44,31 @@ public final class AStarPathFinder extends AbstractNodeCostSearch {
     private final CalculationContext calcContext;
 
     public AStarPathFinder(BetterBlockPos realStart, int startX, int startY, int startZ, Goal goal, Favoring favoring, CalculationContext context) {
-        super(realStart, startX, startY, startZ, goal, context);
+        this(realStart, startX, startY, startZ, goal, favoring, context, null);
+    }
+
+    public AStarPathFinder(BetterBlockPos realStart, int startX, int startY, int startZ, Goal goal, Favoring favoring, CalculationContext context, SearchStatePool.State state) {
+        super(realStart, startX, startY, startZ, goal, context, state);
         this.favoring = favoring;
-        this.calcContext = context;
+        this.calcContext = this.context; // the search's own copy, not the one that was passed in
     }
 
     @Override
     protected Optional<IPath> calculate0(long primaryTimeout, long failureTimeout) {
-        int minY = calcContext.world.dimensionType().minY();
-        int height = calcContext.world.dimensionType().height();
         startNode = getNodeAtPosition(startX, startY, startZ, BetterBlockPos.longHash(startX, startY, startZ));
         startNode.cost = 0;
-        startNode.combinedCost = startNode.estimatedCostToGoal;
-        BinaryHeapOpenSet openSet = new BinaryHeapOpenSet();
+        double weight = Math.max(1, Baritone.settings().pathingInitialWeight.value);
+        double weightStep = Baritone.settings().pathingWeightStep.value;
+        startNode.combinedCost = weight * startNode.estimatedCostToGoal;
+        IOpenSet openSet = createOpenSet();
         openSet.insert(startNode);
         double[] bestHeuristicSoFar = new double[COEFFICIENTS.length];//keep track of the best node by the metric of (estimatedCostToGoal + cost / COEFFICIENTS[i])
         for (int i = 0; i < bestHeuristicSoFar.length; i++) {
             bestHeuristicSoFar[i] = startNode.estimatedCostToGoal;
             bestSoFar[i] = startNode;
         }
-        MutableMoveResult res = new MutableMoveResult();
-        BetterWorldBorder worldBorder = new BetterWorldBorder(calcContext.world.getWorldBorder());
+        MovementExpander expander = new MovementExpander(calcContext, favoring, stats);
+        MutableMoveResult res = expander.res;
         long startTime = System.currentTimeMillis();
         boolean slowPath = Baritone.settings().slowPath.value;
         if (slowPath) {
@@ -73,19 +78,30 @@ public final class AStarPathFinder extends AbstractNodeCostSearch {
         long failureTimeoutTime = startTime + (slowPath ? Baritone.settings().slowPathTimeoutMS.value : failureTimeout);
         boolean failing = true;
         int numNodes = 0;
-        int numMovementsConsidered = 0;
-        int numEmptyChunk = 0;
-        boolean isFavoring = !favoring.isEmpty();
-        int timeCheckInterval = 1 << 6;
+        TimeCheck timeCheck = new TimeCheck();
         int pathingMaxChunkBorderFetch = Baritone.settings().pathingMaxChunkBorderFetch.value; // grab all settings beforehand so that changing settings during pathing doesn't cause a crash or unpredictable behavior
         double minimumImprovement = Baritone.settings().minimumImprovementRepropagation.value ? MIN_IMPROVEMENT : 0;
         Moves[] allMoves = Moves.values();
-        while (!openSet.isEmpty() && numEmptyChunk < pathingMaxChunkBorderFetch && !cancelRequested) {
-            if ((numNodes & (timeCheckInterval - 1)) == 0) { // only call this once every 64 nodes (about half a millisecond)
-                long now = System.currentTimeMillis(); // since nanoTime is slow on windows (takes many microseconds)
+        int openSetHighWaterMark = openSet.size();
+        BlockStateInterface bsi = calcContext.bsi;
+        boolean prefetchRegions = Baritone.settings().pathingPrefetchRegions.value;
+        Path incumbent = null; // the cheapest path to the goal found so far, see pathingInitialWeight
+        double incumbentCost = Double.MAX_VALUE;
+        while (!openSet.isEmpty() && expander.numEmptyChunk < pathingMaxChunkBorderFetch && !cancelRequested) {
+            if (timeCheck.isDue(numNodes)) { // only check the time every half a millisecond or so, since nanoTime is slow on windows
+                long now = timeCheck.sample(numNodes);
                 if (now - failureTimeoutTime >= 0 || (!failing && now - primaryTimeoutTime >= 0)) {
                     break;
                 }
+                if (mostRecentConsidered != null && wantsPrefix()) {
+                    offerPrefix(now, mostRecentConsidered, numNodes);
+                }
+                if (mostRecentConsidered != null && prefetchRegions) {
+                    bsi.prefetchRegions(mostRecentConsidered.x, mostRecentConsidered.z);
+                }
+                if (mostRecentConsidered != null && progressDue(now)) {
+                    publishProgress(new Path(realStart, startNode, mostRecentConsidered, 0, goal, calcContext), numNodes);
+                }
             }
             if (slowPath) {
                 try {
@@ -95,89 +111,45 @@ public final class AStarPathFinder extends AbstractNodeCostSearch {
             PathNode currentNode = openSet.removeLowest();
             mostRecentConsidered = currentNode;
             numNodes++;
+            if (currentNode.cost + currentNode.estimatedCostToGoal >= incumbentCost) {
+                continue; // can't lead to a cheaper path than the one already found
+            }
             if (goal.isInGoal(currentNode.x, currentNode.y, currentNode.z)) {
-                logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + numMovementsConsidered + " movements considered");
-                return Optional.of(new Path(realStart, startNode, currentNode, numNodes, goal, calcContext));
+                // the previous incumbent would have pruned this node if it were cheaper
+                incumbent = new Path(realStart, startNode, currentNode, numNodes, goal, calcContext);
+                incumbentCost = currentNode.cost;
+                failing = false;
+                if (weight <= 1 || System.currentTimeMillis() - primaryTimeoutTime >= 0) {
+                    stats.set(numNodes, expander.numMovementsConsidered, expander.numEmptyChunk, openSetHighWaterMark);
+                    logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + expander.numMovementsConsidered + " movements considered");
+                    return Optional.of(incumbent);
+                }
+                // there's still time, so look for a cheaper path with a weight closer to plain A*
+                weight = Math.max(1, weight - weightStep);
+                logDebug("Found path with cost " + incumbentCost + ", lowering heuristic weight to " + weight);
+                reweigh(openSet, weight);
+                continue;
             }
+            PathNode previous = currentNode.previous;
+            expander.expand(currentNode.x, currentNode.y, currentNode.z, BetterBlockPos.longHash(currentNode.x, currentNode.y, currentNode.z), currentNode.previousMove, previous == null ? 0 : previous.y);
             for (Moves moves : allMoves) {
-                int newX = currentNode.x + moves.xOffset;
-                int newZ = currentNode.z + moves.zOffset;
-                if ((newX >> 4 != currentNode.x >> 4 || newZ >> 4 != currentNode.z >> 4) && !calcContext.isLoaded(newX, newZ)) {
-                    // only need to check if the destination is a loaded chunk if it's in a different chunk than the start of the movement
-                    if (!moves.dynamicXZ) { // only increment the counter if the movement would have gone out of bounds guaranteed
-                        numEmptyChunk++;
-                    }
-                    continue;
-                }
-                if (!moves.dynamicXZ && !worldBorder.entirelyContains(newX, newZ)) {
-                    continue;
-                }
-                if (currentNode.y + moves.yOffset > height || currentNode.y + moves.yOffset < minY) {
-                    continue;
-                }
-                res.reset();
-                moves.apply(calcContext, currentNode.x, currentNode.y, currentNode.z, res);
-                numMovementsConsidered++;
-                double actionCost = res.cost;
-                if (Double.isNaN(actionCost)) {
-                    throw new IllegalStateException(moves + " calculated implausible cost " + actionCost);
-                }
-                if (actionCost <= 0) {
-                    actionCost = -actionCost;
-                }
+                double actionCost = expander.cost(moves);
                 if (actionCost >= ActionCosts.COST_INF) {
                     continue;
                 }
-                // if (actionCost <= 0 || Double.isNaN(actionCost)) {
-                //     throw new IllegalStateException(String.format(
-                //             "%s from %s %s %s calculated implausible cost %s",
-                //             moves,
-                //             SettingsUtil.maybeCensor(currentNode.x),
-                //             SettingsUtil.maybeCensor(currentNode.y),
-                //             SettingsUtil.maybeCensor(currentNode.z),
-                //             actionCost));
-                // }
-                // check destination after verifying it's not COST_INF -- some movements return COST_INF without adjusting the destination
-                if (moves.dynamicXZ && !worldBorder.entirelyContains(res.x, res.z)) { // see issue #218
-                    continue;
-                }
-                if (!moves.dynamicXZ && (res.x != newX || res.z != newZ)) {
-                    throw new IllegalStateException(String.format(
-                            "%s from %s %s %s ended at x z %s %s instead of %s %s",
-                            moves,
-                            SettingsUtil.maybeCensor(currentNode.x),
-                            SettingsUtil.maybeCensor(currentNode.y),
-                            SettingsUtil.maybeCensor(currentNode.z),
-                            SettingsUtil.maybeCensor(res.x),
-                            SettingsUtil.maybeCensor(res.z),
-                            SettingsUtil.maybeCensor(newX),
-                            SettingsUtil.maybeCensor(newZ)));
-                }
-                if (!moves.dynamicY && res.y != currentNode.y + moves.yOffset) {
-                    throw new IllegalStateException(String.format(
-                            "%s from %s %s %s ended at y %s instead of %s",
-                            moves,
-                            SettingsUtil.maybeCensor(currentNode.x),
-                            SettingsUtil.maybeCensor(currentNode.y),
-                            SettingsUtil.maybeCensor(currentNode.z),
-                            SettingsUtil.maybeCensor(res.y),
-                            SettingsUtil.maybeCensor(currentNode.y + moves.yOffset)));
-                }
                 long hashCode = BetterBlockPos.longHash(res.x, res.y, res.z);
-                if (isFavoring) {
-                    // see issue #18
-                    actionCost *= favoring.calculate(hashCode);
-                }
                 PathNode neighbor = getNodeAtPosition(res.x, res.y, res.z, hashCode);
                 double tentativeCost = currentNode.cost + actionCost;
                 if (neighbor.cost - tentativeCost > minimumImprovement) {
                     neighbor.previous = currentNode;
+                    neighbor.previousMove = moves;
                     neighbor.cost = tentativeCost;
-                    neighbor.combinedCost = tentativeCost + neighbor.estimatedCostToGoal;
+                    neighbor.combinedCost = tentativeCost + weight * neighbor.estimatedCostToGoal;
                     if (neighbor.isOpen()) {
                         openSet.update(neighbor);
                     } else {
                         openSet.insert(neighbor);//dont double count, dont insert into open set if it's already there
+                        openSetHighWaterMark = Math.max(openSetHighWaterMark, openSet.size());
                     }
                     for (int i = 0; i < COEFFICIENTS.length; i++) {
                         double heuristic = neighbor.estimatedCostToGoal + neighbor.cost / COEFFICIENTS[i];
@@ -192,17 +164,32 @@ public final class AStarPathFinder extends AbstractNodeCostSearch {
                 }
             }
         }
+        stats.set(numNodes, expander.numMovementsConsidered, expander.numEmptyChunk, openSetHighWaterMark);
         if (cancelRequested) {
             return Optional.empty();
         }
-        System.out.println(numMovementsConsidered + " movements considered");
-        System.out.println("Open set size: " + openSet.size());
-        System.out.println("PathNode map size: " + mapSize());
-        System.out.println((int) (numNodes * 1.0 / ((System.currentTimeMillis() - startTime) / 1000F)) + " nodes per second");
+        if (incumbent != null) {
+            logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + expander.numMovementsConsidered + " movements considered");
+            return Optional.of(incumbent);
+        }
         Optional<IPath> result = bestSoFar(true, numNodes);
         if (result.isPresent()) {
-            logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + numMovementsConsidered + " movements considered");
+            logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + expander.numMovementsConsidered + " movements considered");
         }
         return result;
     }
+
+    /**
+     * Rebuilds the open set after the heuristic weight changed, since every node in it has a different key now
+     */
+    private static void reweigh(IOpenSet openSet, double weight) {
+        List<PathNode> open = new ArrayList<>(openSet.size());
+        while (!openSet.isEmpty()) {
+            open.add(openSet.removeLowest());
+        }
+        for (PathNode node : open) {
+            node.combinedCost = node.cost + weight * node.estimatedCostToGoal;
+            openSet.insert(node);
+        }
+    }
 }
@@ -20,14 +20,29 @@ package baritone.pathing.calc;
 import baritone.Baritone;
 import baritone.api.pathing.calc.IPath;
 import baritone.api.pathing.calc.IPathFinder;
+import baritone.api.pathing.calc.PathCalculationMetrics;
 import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalComposite;
 import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.Helper;
+import baritone.api.utils.interfaces.IGoalRenderPos;
 import baritone.api.utils.PathCalculationResult;
+import baritone.api.utils.SettingsUtil;
+import baritone.pathing.calc.openset.BinaryHeapOpenSet;
+import baritone.pathing.calc.openset.IOpenSet;
+import baritone.pathing.calc.openset.PairingHeapOpenSet;
+import baritone.pathing.calc.openset.RadixHeapOpenSet;
 import baritone.pathing.movement.CalculationContext;
+import baritone.pathing.movement.Moves;
+import baritone.utils.pathing.MutableMoveResult;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
 
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Any pathfinding algorithm that keeps track of nodes recursively by their cost (e.g. A*, dijkstra)
@@ -43,7 +58,27 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
 
     protected final Goal goal;
 
-    private final CalculationContext context;
+    /**
+     * The goal to give new nodes, the same as {@link #goal} unless heuristics are being timed
+     */
+    protected final Goal heuristicGoal;
+
+    /**
+     * This search's own copy of the context it was given, see {@link CalculationContext#forCalculation()}
+     */
+    final CalculationContext context;
+
+    /**
+     * Filled in by {@link #calculate0} as it goes
+     */
+    protected final SearchStats stats;
+
+    private volatile PathCalculationMetrics metrics;
+
+    /**
+     * Where {@link #map} came from, handed back once the calculation is over. Null if nothing is pooled.
+     */
+    protected final SearchStatePool.State state;
 
     /**
      * @see <a href="https://github.com/cabaletta/baritone/issues/107">Issue #107</a>
@@ -58,6 +93,32 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
 
     private volatile boolean isFinished;
 
+    /**
+     * How often the paths shown while searching are copied, see {@link #publishProgress}
+     */
+    private static final long PROGRESS_INTERVAL_MS = 50;
+
+    private volatile IPath mostRecentProgress;
+
+    private volatile IPath bestProgress;
+
+    private long lastProgress;
+
+    /**
+     * Null unless {@link #streamStablePrefix} was called before the calculation started
+     */
+    private StablePrefixTracker prefixTracker;
+
+    /**
+     * The post processed stable prefix, waiting to be picked up by {@link #takeStablePrefix()}
+     */
+    private final AtomicReference<IPath> stablePrefix = new AtomicReference<>();
+
+    /**
+     * Null unless {@link #materializeRegion} found a box small enough, otherwise min x y z then max x y z
+     */
+    private int[] materializeBounds;
+
     protected boolean cancelRequested;
 
     /**
@@ -83,13 +144,84 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
     protected static final double MIN_IMPROVEMENT = 0.01;
 
     AbstractNodeCostSearch(BetterBlockPos realStart, int startX, int startY, int startZ, Goal goal, CalculationContext context) {
+        this(realStart, startX, startY, startZ, goal, context, null);
+    }
+
+    AbstractNodeCostSearch(BetterBlockPos realStart, int startX, int startY, int startZ, Goal goal, CalculationContext context, SearchStatePool.State state) {
         this.realStart = realStart;
         this.startX = startX;
         this.startY = startY;
         this.startZ = startZ;
         this.goal = goal;
-        this.context = context;
-        this.map = new Long2ObjectOpenHashMap<>(Baritone.settings().pathingMapDefaultSize.value, Baritone.settings().pathingMapLoadFactor.value);
+        this.context = context.forCalculation();
+        this.stats = new SearchStats(Baritone.settings().pathingMetricsTimings.value);
+        this.heuristicGoal = stats.heuristicGoal(goal);
+        this.state = state;
+        this.map = state != null ? state.map : new Long2ObjectOpenHashMap<>(Baritone.settings().pathingMapDefaultSize.value, Baritone.settings().pathingMapLoadFactor.value);
+    }
+
+    /**
+     * Asks the search to hand out the start of its path as soon as that stops changing, so that walking can begin
+     * before the whole calculation is done. Has to be called before {@link #calculate}.
+     *
+     * @param stableMillis How long the start of the path has to stay the same for
+     * @param minLength    How many positions the start of the path has to have, at least
+     * @see baritone.api.Settings#pathingStreamPrefix
+     */
+    public void streamStablePrefix(long stableMillis, int minLength) {
+        prefixTracker = new StablePrefixTracker(stableMillis, minLength);
+    }
+
+    /**
+     * Has the calculation read every block between the start and the goal up front, if the goal only covers a few known
+     * positions and the box around all of them isn't too big. Has to be called before {@link #calculate}.
+     *
+     * @param margin    How far past the start and the goal the box goes, since paths rarely go in a straight line
+     * @param maxVolume How many blocks the box can have, at most
+     * @see baritone.api.Settings#pathingMaterializeRegion
+     */
+    public void materializeRegion(int margin, long maxVolume) {
+        int[] bounds = {startX, startY, startZ, startX, startY, startZ};
+        if (!includeGoal(goal, bounds)) {
+            return; // e.g. GoalXZ or GoalYLevel, the search could go anywhere
+        }
+        for (int i = 0; i < 3; i++) {
+            bounds[i] -= margin;
+            bounds[i + 3] += margin;
+        }
+        long volume = (long) (bounds[3] - bounds[0] + 1) * (bounds[4] - bounds[1] + 1) * (bounds[5] - bounds[2] + 1);
+        if (volume <= maxVolume) {
+            materializeBounds = bounds;
+        }
+    }
+
+    private static boolean includeGoal(Goal goal, int[] bounds) {
+        if (goal instanceof GoalComposite) {
+            for (Goal sub : ((GoalComposite) goal).goals()) {
+                if (!includeGoal(sub, bounds)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (!(goal instanceof IGoalRenderPos)) {
+            return false;
+        }
+        BlockPos pos = ((IGoalRenderPos) goal).getGoalPos();
+        bounds[0] = Math.min(bounds[0], pos.getX());
+        bounds[1] = Math.min(bounds[1], pos.getY());
+        bounds[2] = Math.min(bounds[2], pos.getZ());
+        bounds[3] = Math.max(bounds[3], pos.getX());
+        bounds[4] = Math.max(bounds[4], pos.getY());
+        bounds[5] = Math.max(bounds[5], pos.getZ());
+        return true;
+    }
+
+    /**
+     * @return The stable start of the path, only the first time it's called after the search found one
+     */
+    public Optional<IPath> takeStablePrefix() {
+        return Optional.ofNullable(stablePrefix.getAndSet(null));
     }
 
     public void cancel() {
@@ -98,12 +230,63 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
 
     @Override
     public synchronized PathCalculationResult calculate(long primaryTimeout, long failureTimeout) {
+        long startTime = System.currentTimeMillis();
+        long gcCountBefore = 0;
+        long gcMillisBefore = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCountBefore += Math.max(0, gc.getCollectionCount());
+            gcMillisBefore += Math.max(0, gc.getCollectionTime());
+        }
+        try {
+            PathCalculationResult result = calculate1(primaryTimeout, failureTimeout);
+            long gcCount = -gcCountBefore;
+            long gcMillis = -gcMillisBefore;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += Math.max(0, gc.getCollectionCount());
+                gcMillis += Math.max(0, gc.getCollectionTime());
+            }
+            metrics = stats.toMetrics(getClass().getSimpleName(), startTime, System.currentTimeMillis() - startTime, result.getType(), mapSize(), gcCount, gcMillis);
+            return result;
+        } finally {
+            if (state != null) {
+                // the path has been built by now, so nothing needs the nodes anymore
+                state.release();
+            }
+        }
+    }
+
+    /**
+     * @return What happened during the calculation, once it's finished
+     */
+    public Optional<PathCalculationMetrics> getMetrics() {
+        return Optional.ofNullable(metrics);
+    }
+
+    private PathCalculationResult calculate1(long primaryTimeout, long failureTimeout) {
         if (isFinished) {
             throw new IllegalStateException("Path finder cannot be reused!");
         }
         cancelRequested = false;
         try {
-            IPath path = calculate0(primaryTimeout, failureTimeout).map(IPath::postProcess).orElse(null);
+            if (goal instanceof CorridorWaypointGoal) {
+                // here rather than on the main thread, it can take a while
+                // and it counts towards the timeouts, the same as the search itself
+                long planStart = System.currentTimeMillis();
+                long planDeadline = planStart + primaryTimeout;
+                ((CorridorWaypointGoal) goal).plan(() -> cancelRequested || System.currentTimeMillis() - planDeadline >= 0);
+                long planning = System.currentTimeMillis() - planStart;
+                primaryTimeout = Math.max(0, primaryTimeout - planning);
+                failureTimeout = Math.max(0, failureTimeout - planning);
+            }
+            if (materializeBounds != null) {
+                int[] b = materializeBounds;
+                context.bsi.materialize(b[0], b[1], b[2], b[3], b[4], b[5]);
+            }
+            Optional<IPath> found = calculate0(primaryTimeout, failureTimeout);
+            // post processing should see the blocks as they are by now, not as the search cached them
+            context.bsi.closeWindow();
+            context.bsi.dematerialize();
+            IPath path = found.map(IPath::postProcess).orElse(null);
             if (cancelRequested) {
                 return new PathCalculationResult(PathCalculationResult.Type.CANCELLATION);
             }
@@ -134,12 +317,71 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
             return new PathCalculationResult(PathCalculationResult.Type.EXCEPTION);
         } finally {
             // this is run regardless of what exception may or may not be raised by calculate0
+            context.bsi.closeWindow();
+            context.bsi.dematerialize();
             isFinished = true;
         }
     }
 
     protected abstract Optional<IPath> calculate0(long primaryTimeout, long failureTimeout);
 
+    /**
+     * @return Whether {@link #offerPrefix} should be called at the next time check
+     */
+    protected boolean wantsPrefix() {
+        return prefixTracker != null && !prefixTracker.isDone();
+    }
+
+    /**
+     * Offers the path to the node currently being expanded to the {@link StablePrefixTracker}, and publishes the start
+     * of it if it's been stable for long enough
+     *
+     * @param now      The current time in milliseconds
+     * @param node     The node currently being expanded
+     * @param numNodes The number of nodes considered so far
+     */
+    protected void offerPrefix(long now, PathNode node, int numNodes) {
+        int length = 0;
+        for (PathNode n = node; n != null; n = n.previous) {
+            length++;
+        }
+        PathNode[] chain = new PathNode[length];
+        long[] hashes = new long[length];
+        int i = length;
+        for (PathNode n = node; n != null; n = n.previous) {
+            chain[--i] = n;
+            hashes[i] = BetterBlockPos.longHash(n.x, n.y, n.z);
+        }
+        int prefixLength = prefixTracker.offer(now, hashes, length);
+        if (prefixLength > 0) {
+            publishPrefix(new Path(realStart, startNode, chain[prefixLength - 1], numNodes, goal, context));
+        }
+    }
+
+    /**
+     * @param now    The current time in milliseconds
+     * @param chain  The position hashes of the path to the node currently being expanded
+     * @param length How many entries of {@code chain} are used
+     * @return The length of the stable prefix to publish with {@link #publishPrefix}, or 0 if there isn't one yet
+     * @see #offerPrefix(long, PathNode, int)
+     */
+    protected int offerPrefix(long now, long[] chain, int length) {
+        return prefixTracker.offer(now, chain, length);
+    }
+
+    /**
+     * Post processes the stable prefix on the search thread, and hands it out if there's anything left to walk
+     *
+     * @param prefix The raw path from the start to the end of the stable prefix
+     */
+    protected void publishPrefix(IPath prefix) {
+        context.bsi.closeWindow(); // see the blocks as they are by now, not as the search cached them
+        IPath path = prefix.postProcess();
+        if (path.length() > 1) {
+            stablePrefix.set(path);
+        }
+    }
+
     /**
      * Determines the distance squared from the specified node to the start
      * node. Intended for use in distance comparison, rather than anything that
@@ -155,6 +397,56 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
         return xDiff * xDiff + yDiff * yDiff + zDiff * zDiff;
     }
 
+    /**
+     * @return An empty open set of the type picked by {@link baritone.api.Settings#pathingOpenSet}
+     */
+    protected IOpenSet createOpenSet() {
+        switch (Baritone.settings().pathingOpenSet.value.toLowerCase(Locale.ROOT)) {
+            case "pairing":
+                return new PairingHeapOpenSet();
+            case "radix":
+                return new RadixHeapOpenSet();
+            default:
+                return state != null ? state.openSet() : new BinaryHeapOpenSet();
+        }
+    }
+
+    /**
+     * Sanity checks that a movement without a dynamic destination ended up where its offsets say it should
+     *
+     * @param moves The movement that was just calculated
+     * @param x     The x position the movement started at
+     * @param y     The y position the movement started at
+     * @param z     The z position the movement started at
+     * @param res   The result of the movement calculation
+     * @param newX  The expected destination x
+     * @param newZ  The expected destination z
+     */
+    protected static void checkMoveDestination(Moves moves, int x, int y, int z, MutableMoveResult res, int newX, int newZ) {
+        if (!moves.dynamicXZ && (res.x != newX || res.z != newZ)) {
+            throw new IllegalStateException(String.format(
+                    "%s from %s %s %s ended at x z %s %s instead of %s %s",
+                    moves,
+                    SettingsUtil.maybeCensor(x),
+                    SettingsUtil.maybeCensor(y),
+                    SettingsUtil.maybeCensor(z),
+                    SettingsUtil.maybeCensor(res.x),
+                    SettingsUtil.maybeCensor(res.z),
+                    SettingsUtil.maybeCensor(newX),
+                    SettingsUtil.maybeCensor(newZ)));
+        }
+        if (!moves.dynamicY && res.y != y + moves.yOffset) {
+            throw new IllegalStateException(String.format(
+                    "%s from %s %s %s ended at y %s instead of %s",
+                    moves,
+                    SettingsUtil.maybeCensor(x),
+                    SettingsUtil.maybeCensor(y),
+                    SettingsUtil.maybeCensor(z),
+                    SettingsUtil.maybeCensor(res.y),
+                    SettingsUtil.maybeCensor(y + moves.yOffset)));
+        }
+    }
+
     /**
      * Attempts to search the block position hashCode long to {@link PathNode} map
      * for the node mapped to the specified pos. If no node is found,
@@ -171,32 +463,57 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
     protected PathNode getNodeAtPosition(int x, int y, int z, long hashCode) {
         PathNode node = map.get(hashCode);
         if (node == null) {
-            node = new PathNode(x, y, z, goal);
+            node = new PathNode(x, y, z, heuristicGoal);
             map.put(hashCode, node);
         }
         return node;
     }
 
+    /**
+     * @param now The current time in milliseconds
+     * @return Whether it's time to {@link #publishProgress} again
+     */
+    protected boolean progressDue(long now) {
+        if (now - lastProgress < PROGRESS_INTERVAL_MS) {
+            return false;
+        }
+        lastProgress = now;
+        return true;
+    }
+
+    /**
+     * Hands the render thread and the main thread their own copies of the path to the node being expanded and of the
+     * best path so far. Only the search itself ever reads the nodes, so they can go back to the
+     * {@link SearchStatePool} as soon as it's done, no matter who still has a reference to this.
+     *
+     * @param mostRecent The path to the node being expanded
+     * @param numNodes   The number of nodes considered so far
+     */
+    protected void publishProgress(IPath mostRecent, int numNodes) {
+        mostRecentProgress = mostRecent;
+        bestProgress = bestSoFar(false, numNodes).orElse(null);
+    }
+
     @Override
     public Optional<IPath> pathToMostRecentNodeConsidered() {
-        return Optional.ofNullable(mostRecentConsidered).map(node -> new Path(realStart, startNode, node, 0, goal, context));
+        return Optional.ofNullable(mostRecentProgress);
     }
 
     @Override
     public Optional<IPath> bestPathSoFar() {
-        return bestSoFar(false, 0);
+        return Optional.ofNullable(bestProgress);
     }
 
     protected Optional<IPath> bestSoFar(boolean logInfo, int numNodes) {
-        if (startNode == null) {
+        if (!hasStarted()) {
             return Optional.empty();
         }
         double bestDist = 0;
         for (int i = 0; i < COEFFICIENTS.length; i++) {
-            if (bestSoFar[i] == null) {
+            double dist = getBestSoFarDistFromStartSq(i);
+            if (dist < 0) {
                 continue;
             }
-            double dist = getDistFromStartSq(bestSoFar[i]);
             if (dist > bestDist) {
                 bestDist = dist;
             }
@@ -210,7 +527,7 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
                     System.out.println("Path goes for " + Math.sqrt(dist) + " blocks");
                     logDebug("A* cost coefficient " + COEFFICIENTS[i]);
                 }
-                return Optional.of(new Path(realStart, startNode, bestSoFar[i], numNodes, goal, context));
+                return Optional.of(getBestSoFarPath(i, numNodes));
             }
         }
         // instead of returning bestSoFar[0], be less misleading
@@ -223,6 +540,31 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
         return Optional.empty();
     }
 
+    /**
+     * @return Whether the start node has been created yet
+     */
+    protected boolean hasStarted() {
+        return startNode != null;
+    }
+
+    /**
+     * @param coefficient Index into {@link #COEFFICIENTS}
+     * @return The squared distance from the start to the best node for that coefficient, or -1 if there is none yet
+     */
+    protected double getBestSoFarDistFromStartSq(int coefficient) {
+        PathNode node = bestSoFar[coefficient];
+        return node == null ? -1 : getDistFromStartSq(node);
+    }
+
+    /**
+     * @param coefficient Index into {@link #COEFFICIENTS}
+     * @param numNodes    The number of nodes considered, for the resulting path
+     * @return The path to the best node for that coefficient
+     */
+    protected IPath getBestSoFarPath(int coefficient, int numNodes) {
+        return new Path(realStart, startNode, bestSoFar[coefficient], numNodes, goal, context);
+    }
+
     @Override
     public final boolean isFinished() {
         return isFinished;
@@ -0,0 +1,198 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.movement.ActionCosts;
+import baritone.cache.CachedChunk;
+import baritone.cache.CachedRegion;
+import baritone.cache.WorldData;
+import baritone.pathing.movement.CalculationContext;
+import baritone.utils.pathing.BetterWorldBorder;
+import it.unimi.dsi.fastutil.longs.Long2DoubleOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A coarse A* over whole chunks, using the surface heights in the chunk cache to guess which chunk borders can be
+ * walked across. It's far too rough to walk, but it's cheap enough to run over thousands of blocks, and tells the
+ * block level search which way to go.
+ *
+ * @see baritone.api.Settings#hierarchicalPathing
+ */
+public final class ChunkCorridorSearch {
+
+    /**
+     * The cost of walking straight across one chunk
+     */
+    private static final double CHUNK_COST = 16 * ActionCosts.WALK_ONE_BLOCK_COST;
+
+    /**
+     * Chunks that aren't cached might be fine, but known good chunks should win over them
+     */
+    private static final double UNKNOWN_MULTIPLIER = 1.5;
+
+    /**
+     * A border with no column that looks walkable still might be crossable by breaking or placing blocks
+     */
+    private static final double BLOCKED_MULTIPLIER = 4;
+
+    private static final int[][] DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+    private final WorldData worldData;
+    private final BetterWorldBorder worldBorder;
+    private final int maxFallHeight;
+
+    private CachedRegion prevRegion;
+
+    public ChunkCorridorSearch(CalculationContext context) {
+        this.worldData = context.worldData;
+        this.worldBorder = context.worldBorder;
+        this.maxFallHeight = context.maxFallHeightNoWater;
+    }
+
+    /**
+     * @param startX   The block x position to start from
+     * @param startZ   The block z position to start from
+     * @param goalX    The block x position to get to
+     * @param goalZ    The block z position to get to
+     * @param maxNodes How many chunks to expand before giving up
+     * @param stop     Checked before expanding each chunk, since loading regions can be slow. Gives up once it's true.
+     * @return The chunks from the start chunk to the goal chunk, packed with {@link ChunkPos#asLong(int, int)}
+     */
+    public Optional<LongList> findCorridor(int startX, int startZ, int goalX, int goalZ, int maxNodes, BooleanSupplier stop) {
+        int goalChunkX = goalX >> 4;
+        int goalChunkZ = goalZ >> 4;
+        long start = ChunkPos.asLong(startX >> 4, startZ >> 4);
+        long goal = ChunkPos.asLong(goalChunkX, goalChunkZ);
+        Long2DoubleOpenHashMap costs = new Long2DoubleOpenHashMap();
+        costs.defaultReturnValue(Double.MAX_VALUE);
+        Long2LongOpenHashMap previous = new Long2LongOpenHashMap();
+        PriorityQueue<Entry> openSet = new PriorityQueue<>();
+        costs.put(start, 0);
+        openSet.add(new Entry(start, 0, heuristic(startX >> 4, startZ >> 4, goalChunkX, goalChunkZ)));
+        int numNodes = 0;
+        while (!openSet.isEmpty() && numNodes < maxNodes && !stop.getAsBoolean()) {
+            Entry current = openSet.poll();
+            if (current.cost > costs.get(current.chunk)) {
+                continue; // stale, this chunk was already reached more cheaply
+            }
+            if (current.chunk == goal) {
+                return Optional.of(reconstruct(previous, start, goal));
+            }
+            numNodes++;
+            int chunkX = ChunkPos.getX(current.chunk);
+            int chunkZ = ChunkPos.getZ(current.chunk);
+            CachedChunk from = getChunk(chunkX, chunkZ);
+            for (int[] dir : DIRECTIONS) {
+                int nextX = chunkX + dir[0];
+                int nextZ = chunkZ + dir[1];
+                if (!worldBorder.entirelyContains(nextX << 4 | 8, nextZ << 4 | 8)) {
+                    continue;
+                }
+                long next = ChunkPos.asLong(nextX, nextZ);
+                double cost = current.cost + CHUNK_COST * multiplier(from, getChunk(nextX, nextZ), dir[0], dir[1]);
+                if (cost < costs.get(next)) {
+                    costs.put(next, cost);
+                    previous.put(next, current.chunk);
+                    openSet.add(new Entry(next, cost, cost + heuristic(nextX, nextZ, goalChunkX, goalChunkZ)));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static double heuristic(int chunkX, int chunkZ, int goalChunkX, int goalChunkZ) {
+        // every step is between two neighboring chunks and costs at least CHUNK_COST, so this never overestimates
+        return (Math.abs(chunkX - goalChunkX) + Math.abs(chunkZ - goalChunkZ)) * CHUNK_COST;
+    }
+
+    private static LongList reconstruct(Long2LongOpenHashMap previous, long start, long goal) {
+        LongArrayList corridor = new LongArrayList();
+        for (long chunk = goal; chunk != start; chunk = previous.get(chunk)) {
+            corridor.add(chunk);
+        }
+        corridor.add(start);
+        for (int i = 0, j = corridor.size() - 1; i < j; i++, j--) {
+            long tmp = corridor.getLong(i);
+            corridor.set(i, corridor.getLong(j));
+            corridor.set(j, tmp);
+        }
+        return corridor;
+    }
+
+    private double multiplier(CachedChunk from, CachedChunk to, int dx, int dz) {
+        if (from == null || to == null) {
+            return UNKNOWN_MULTIPLIER;
+        }
+        for (int i = 0; i < 16; i++) {
+            // the column on the edge of from, and the one right next to it across the border in to
+            int fromX = dx == 0 ? i : dx > 0 ? 15 : 0;
+            int fromZ = dz == 0 ? i : dz > 0 ? 15 : 0;
+            int toX = dx == 0 ? i : 15 - fromX;
+            int toZ = dz == 0 ? i : 15 - fromZ;
+            if (!from.isSurfaceSolid(fromX, fromZ) || !to.isSurfaceSolid(toX, toZ)) {
+                continue;
+            }
+            int dy = to.getSurfaceHeight(toX, toZ) - from.getSurfaceHeight(fromX, fromZ);
+            if (dy <= 1 && dy >= -maxFallHeight) {
+                return 1;
+            }
+        }
+        return BLOCKED_MULTIPLIER;
+    }
+
+    private CachedChunk getChunk(int chunkX, int chunkZ) {
+        if (worldData == null) {
+            return null;
+        }
+        CachedRegion region = prevRegion;
+        if (region == null || region.getX() != chunkX >> 5 || region.getZ() != chunkZ >> 5) {
+            // a long trip is mostly through regions nobody has read since they were saved, so load them rather than
+            // treating every chunk in them as unknown. this runs on the calculation thread, see CorridorWaypointGoal
+            region = worldData.cache.getOrCreateRegion(chunkX >> 5, chunkZ >> 5);
+            prevRegion = region;
+        }
+        return region.getChunk(chunkX & 31, chunkZ & 31);
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+
+        final long chunk;
+        final double cost;
+        final double combinedCost;
+
+        Entry(long chunk, double cost, double combinedCost) {
+            this.chunk = chunk;
+            this.cost = cost;
+            this.combinedCost = combinedCost;
+        }
+
+        @Override
+        public int compareTo(Entry o) {
+            int cmp = Double.compare(combinedCost, o.combinedCost);
+            // on ties, prefer the one further along so that open terrain doesn't expand every equally good chunk
+            return cmp != 0 ? cmp : Double.compare(o.cost, cost);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.movement.ActionCosts;
+import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.calc.openset.CompactBinaryHeapOpenSet;
+import baritone.pathing.movement.CalculationContext;
+import baritone.pathing.movement.Moves;
+import baritone.utils.BlockStateInterface;
+import baritone.utils.pathing.Favoring;
+import baritone.utils.pathing.MutableMoveResult;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The same A* as {@link AStarPathFinder}, but keeping nodes in a {@link CompactNodeStore} instead of allocating a
+ * {@link PathNode} per explored position
+ *
+ * @see baritone.api.Settings#compactPathNodeStore
+ */
+public final class CompactAStarPathFinder extends AbstractNodeCostSearch {
+
+    private final Favoring favoring;
+    private final CalculationContext calcContext;
+    private final CompactNodeStore store;
+
+    private int startId = CompactNodeStore.NONE;
+    private int mostRecentConsideredId = CompactNodeStore.NONE;
+    private final int[] bestSoFarIds = new int[COEFFICIENTS.length];
+
+    public CompactAStarPathFinder(BetterBlockPos realStart, int startX, int startY, int startZ, Goal goal, Favoring favoring, CalculationContext context) {
+        this(realStart, startX, startY, startZ, goal, favoring, context, null);
+    }
+
+    public CompactAStarPathFinder(BetterBlockPos realStart, int startX, int startY, int startZ, Goal goal, Favoring favoring, CalculationContext context, SearchStatePool.State state) {
+        super(realStart, startX, startY, startZ, goal, context, state);
+        this.favoring = favoring;
+        this.calcContext = this.context; // the search's own copy, not the one that was passed in
+        this.store = state != null ? state.store(heuristicGoal) : new CompactNodeStore(heuristicGoal, Baritone.settings().pathingMapDefaultSize.value, Baritone.settings().pathingMapLoadFactor.value);
+        Arrays.fill(bestSoFarIds, CompactNodeStore.NONE);
+    }
+
+    @Override
+    protected Optional<IPath> calculate0(long primaryTimeout, long failureTimeout) {
+        int start = store.getOrCreate(startX, startY, startZ, BetterBlockPos.longHash(startX, startY, startZ));
+        store.setCost(start, 0);
+        double weight = Math.max(1, Baritone.settings().pathingInitialWeight.value);
+        double weightStep = Baritone.settings().pathingWeightStep.value;
+        store.setCombinedCost(start, weight * store.estimatedCostToGoal(start));
+        startId = start;
+        CompactBinaryHeapOpenSet openSet = state != null ? state.compactOpenSet() : new CompactBinaryHeapOpenSet(store);
+        openSet.insert(start);
+        double[] bestHeuristicSoFar = new double[COEFFICIENTS.length];//keep track of the best node by the metric of (estimatedCostToGoal + cost / COEFFICIENTS[i])
+        for (int i = 0; i < bestHeuristicSoFar.length; i++) {
+            bestHeuristicSoFar[i] = store.estimatedCostToGoal(start);
+            bestSoFarIds[i] = start;
+        }
+        MovementExpander expander = new MovementExpander(calcContext, favoring, stats);
+        MutableMoveResult res = expander.res;
+        long startTime = System.currentTimeMillis();
+        boolean slowPath = Baritone.settings().slowPath.value;
+        if (slowPath) {
+            logDebug("slowPath is on, path timeout will be " + Baritone.settings().slowPathTimeoutMS.value + "ms instead of " + primaryTimeout + "ms");
+        }
+        long primaryTimeoutTime = startTime + (slowPath ? Baritone.settings().slowPathTimeoutMS.value : primaryTimeout);
+        long failureTimeoutTime = startTime + (slowPath ? Baritone.settings().slowPathTimeoutMS.value : failureTimeout);
+        boolean failing = true;
+        int numNodes = 0;
+        TimeCheck timeCheck = new TimeCheck();
+        int pathingMaxChunkBorderFetch = Baritone.settings().pathingMaxChunkBorderFetch.value; // grab all settings beforehand so that changing settings during pathing doesn't cause a crash or unpredictable behavior
+        double minimumImprovement = Baritone.settings().minimumImprovementRepropagation.value ? MIN_IMPROVEMENT : 0;
+        Moves[] allMoves = Moves.values();
+        int openSetHighWaterMark = openSet.size();
+        BlockStateInterface bsi = calcContext.bsi;
+        boolean prefetchRegions = Baritone.settings().pathingPrefetchRegions.value;
+        Path incumbent = null; // the cheapest path to the goal found so far, see pathingInitialWeight
+        double incumbentCost = Double.MAX_VALUE;
+        while (!openSet.isEmpty() && expander.numEmptyChunk < pathingMaxChunkBorderFetch && !cancelRequested) {
+            if (timeCheck.isDue(numNodes)) { // only check the time every half a millisecond or so, since nanoTime is slow on windows
+                long now = timeCheck.sample(numNodes);
+                if (now - failureTimeoutTime >= 0 || (!failing && now - primaryTimeoutTime >= 0)) {
+                    break;
+                }
+                if (mostRecentConsideredId != CompactNodeStore.NONE && wantsPrefix()) {
+                    offerPrefix(now, mostRecentConsideredId, numNodes);
+                }
+                if (mostRecentConsideredId != CompactNodeStore.NONE && prefetchRegions) {
+                    bsi.prefetchRegions(store.x(mostRecentConsideredId), store.z(mostRecentConsideredId));
+                }
+                if (mostRecentConsideredId != CompactNodeStore.NONE && progressDue(now)) {
+                    publishProgress(new Path(realStart, store, mostRecentConsideredId, 0, goal, calcContext), numNodes);
+                }
+            }
+            if (slowPath) {
+                try {
+                    Thread.sleep(Baritone.settings().slowPathTimeDelayMS.value);
+                } catch (InterruptedException ignored) {}
+            }
+            int current = openSet.removeLowest();
+            int currentX = store.x(current);
+            int currentY = store.y(current);
+            int currentZ = store.z(current);
+            double currentCost = store.cost(current);
+            mostRecentConsideredId = current;
+            numNodes++;
+            if (currentCost + store.estimatedCostToGoal(current) >= incumbentCost) {
+                continue; // can't lead to a cheaper path than the one already found
+            }
+            if (goal.isInGoal(currentX, currentY, currentZ)) {
+                // the previous incumbent would have pruned this node if it were cheaper
+                incumbent = new Path(realStart, store, current, numNodes, goal, calcContext);
+                incumbentCost = currentCost;
+                failing = false;
+                if (weight <= 1 || System.currentTimeMillis() - primaryTimeoutTime >= 0) {
+                    stats.set(numNodes, expander.numMovementsConsidered, expander.numEmptyChunk, openSetHighWaterMark);
+                    logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + expander.numMovementsConsidered + " movements considered");
+                    return Optional.of(incumbent);
+                }
+                // there's still time, so look for a cheaper path with a weight closer to plain A*
+                weight = Math.max(1, weight - weightStep);
+                logDebug("Found path with cost " + incumbentCost + ", lowering heuristic weight to " + weight);
+                reweigh(openSet, weight);
+                continue;
+            }
+            int previous = store.previous(current);
+            expander.expand(currentX, currentY, currentZ, BetterBlockPos.longHash(currentX, currentY, currentZ), store.previousMove(current), previous == CompactNodeStore.NONE ? 0 : store.y(previous));
+            for (Moves moves : allMoves) {
+                double actionCost = expander.cost(moves);
+                if (actionCost >= ActionCosts.COST_INF) {
+                    continue;
+                }
+                long hashCode = BetterBlockPos.longHash(res.x, res.y, res.z);
+                int neighbor = store.getOrCreate(res.x, res.y, res.z, hashCode);
+                double tentativeCost = currentCost + actionCost;
+                if (store.cost(neighbor) - tentativeCost > minimumImprovement) {
+                    double estimatedCostToGoal = store.estimatedCostToGoal(neighbor);
+                    store.setPrevious(neighbor, current);
+                    store.setPreviousMove(neighbor, moves);
+                    store.setCost(neighbor, tentativeCost);
+                    store.setCombinedCost(neighbor, tentativeCost + weight * estimatedCostToGoal);
+                    if (store.isOpen(neighbor)) {
+                        openSet.update(neighbor);
+                    } else {
+                        openSet.insert(neighbor);//dont double count, dont insert into open set if it's already there
+                        openSetHighWaterMark = Math.max(openSetHighWaterMark, openSet.size());
+                    }
+                    for (int i = 0; i < COEFFICIENTS.length; i++) {
+                        double heuristic = estimatedCostToGoal + tentativeCost / COEFFICIENTS[i];
+                        if (bestHeuristicSoFar[i] - heuristic > minimumImprovement) {
+                            bestHeuristicSoFar[i] = heuristic;
+                            bestSoFarIds[i] = neighbor;
+                            if (failing && getDistFromStartSq(neighbor) > MIN_DIST_PATH * MIN_DIST_PATH) {
+                                failing = false;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        stats.set(numNodes, expander.numMovementsConsidered, expander.numEmptyChunk, openSetHighWaterMark);
+        if (cancelRequested) {
+            return Optional.empty();
+        }
+        if (incumbent != null) {
+            logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + expander.numMovementsConsidered + " movements considered");
+            return Optional.of(incumbent);
+        }
+        Optional<IPath> result = bestSoFar(true, numNodes);
+        if (result.isPresent()) {
+            logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + expander.numMovementsConsidered + " movements considered");
+        }
+        return result;
+    }
+
+    /**
+     * Rebuilds the open set after the heuristic weight changed, since every node in it has a different key now
+     */
+    private void reweigh(CompactBinaryHeapOpenSet openSet, double weight) {
+        int[] open = new int[openSet.size()];
+        for (int i = 0; i < open.length; i++) {
+            open[i] = openSet.removeLowest();
+        }
+        for (int id : open) {
+            store.setCombinedCost(id, store.cost(id) + weight * store.estimatedCostToGoal(id));
+            openSet.insert(id);
+        }
+    }
+
+    private void offerPrefix(long now, int node, int numNodes) {
+        int length = 0;
+        for (int id = node; id != CompactNodeStore.NONE; id = store.previous(id)) {
+            length++;
+        }
+        int[] chain = new int[length];
+        long[] hashes = new long[length];
+        int i = length;
+        for (int id = node; id != CompactNodeStore.NONE; id = store.previous(id)) {
+            chain[--i] = id;
+            hashes[i] = BetterBlockPos.longHash(store.x(id), store.y(id), store.z(id));
+        }
+        int prefixLength = offerPrefix(now, hashes, length);
+        if (prefixLength > 0) {
+            publishPrefix(new Path(realStart, store, chain[prefixLength - 1], numNodes, goal, calcContext));
+        }
+    }
+
+    private double getDistFromStartSq(int id) {
+        int xDiff = store.x(id) - startX;
+        int yDiff = store.y(id) - startY;
+        int zDiff = store.z(id) - startZ;
+        return xDiff * xDiff + yDiff * yDiff + zDiff * zDiff;
+    }
+
+    @Override
+    protected boolean hasStarted() {
+        return startId != CompactNodeStore.NONE;
+    }
+
+    @Override
+    protected double getBestSoFarDistFromStartSq(int coefficient) {
+        int node = bestSoFarIds[coefficient];
+        return node == CompactNodeStore.NONE ? -1 : getDistFromStartSq(node);
+    }
+
+    @Override
+    protected IPath getBestSoFarPath(int coefficient, int numNodes) {
+        return new Path(realStart, store, bestSoFarIds[coefficient], numNodes, goal, calcContext);
+    }
+
+    @Override
+    protected int mapSize() {
+        return store.size();
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.movement.ActionCosts;
+import baritone.api.utils.BetterBlockPos;
+import baritone.api.utils.SettingsUtil;
+import baritone.pathing.movement.Moves;
+import it.unimi.dsi.fastutil.HashCommon;
+
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays replacement for a map of {@link PathNode} objects. Every node is just an int id, and all of its
+ * fields live in parallel primitive arrays, so exploring millions of positions doesn't allocate millions of objects.
+ * <p>
+ * The long position hash to id lookup is a linear probing open addressing table, keyed the same way as the
+ * {@link PathNode} map in {@link AbstractNodeCostSearch}.
+ */
+public final class CompactNodeStore {
+
+    /**
+     * Id used for "no node", e.g. the parent of the start node
+     */
+    public static final int NONE = -1;
+
+    private static final Moves[] MOVES = Moves.values();
+
+    private Goal goal;
+
+    // node fields, indexed by node id
+    private int[] x;
+    private int[] y;
+    private int[] z;
+    private double[] estimatedCostToGoal;
+    private double[] cost;
+    private double[] combinedCost;
+    private int[] previous;
+    private byte[] previousMove; // ordinal + 1, 0 for none
+    private int[] heapPosition;
+
+    private int size;
+
+    // position hash -> node id
+    private long[] keys;
+    private int[] ids;
+    private int mask;
+    private int maxFill;
+    private final float loadFactor;
+
+    private final int expected;
+
+    public CompactNodeStore(Goal goal, int expected, float loadFactor) {
+        this.goal = goal;
+        this.loadFactor = loadFactor;
+        this.expected = Math.max(16, expected);
+        allocate(this.expected);
+    }
+
+    private void allocate(int capacity) {
+        this.x = new int[capacity];
+        this.y = new int[capacity];
+        this.z = new int[capacity];
+        this.estimatedCostToGoal = new double[capacity];
+        this.cost = new double[capacity];
+        this.combinedCost = new double[capacity];
+        this.previous = new int[capacity];
+        this.previousMove = new byte[capacity];
+        this.heapPosition = new int[capacity];
+        int tableSize = HashCommon.arraySize(capacity, loadFactor);
+        this.keys = new long[tableSize];
+        this.ids = new int[tableSize];
+        Arrays.fill(ids, NONE);
+        this.mask = tableSize - 1;
+        this.maxFill = HashCommon.maxFill(tableSize, loadFactor);
+    }
+
+    /**
+     * Forgets every node, keeping the arrays around for another calculation
+     *
+     * @param goal        The goal of the next calculation
+     * @param maxCapacity If the arrays have grown to more nodes than this, they're shrunk back down
+     */
+    public void reset(Goal goal, int maxCapacity) {
+        this.goal = goal;
+        size = 0;
+        if (x.length > maxCapacity) {
+            allocate(expected);
+        } else {
+            Arrays.fill(ids, NONE);
+        }
+    }
+
+    /**
+     * Returns the id of the node at the specified position, creating it if it doesn't exist yet.
+     *
+     * @param x        The x position of the node
+     * @param y        The y position of the node
+     * @param z        The z position of the node
+     * @param hashCode The hash code of the node, provided by {@link BetterBlockPos#longHash(int, int, int)}
+     * @return The node id
+     */
+    public int getOrCreate(int x, int y, int z, long hashCode) {
+        int slot = (int) HashCommon.mix(hashCode) & mask;
+        int id;
+        while ((id = ids[slot]) != NONE) {
+            if (keys[slot] == hashCode) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        id = create(x, y, z);
+        keys[slot] = hashCode;
+        ids[slot] = id;
+        if (size >= maxFill) {
+            rehash(HashCommon.arraySize(size + 1, loadFactor));
+        }
+        return id;
+    }
+
+    private int create(int x, int y, int z) {
+        double heuristic = goal.heuristic(x, y, z);
+        if (Double.isNaN(heuristic)) {
+            throw new IllegalStateException(String.format(
+                    "%s calculated implausible heuristic NaN at %s %s %s",
+                    goal,
+                    SettingsUtil.maybeCensor(x),
+                    SettingsUtil.maybeCensor(y),
+                    SettingsUtil.maybeCensor(z)));
+        }
+        if (size == this.x.length) {
+            grow(size << 1);
+        }
+        int id = size++;
+        this.x[id] = x;
+        this.y[id] = y;
+        this.z[id] = z;
+        this.estimatedCostToGoal[id] = heuristic;
+        this.cost[id] = ActionCosts.COST_INF;
+        this.combinedCost[id] = 0;
+        this.previous[id] = NONE;
+        this.previousMove[id] = 0;
+        this.heapPosition[id] = -1;
+        return id;
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        z = Arrays.copyOf(z, capacity);
+        estimatedCostToGoal = Arrays.copyOf(estimatedCostToGoal, capacity);
+        cost = Arrays.copyOf(cost, capacity);
+        combinedCost = Arrays.copyOf(combinedCost, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+        previousMove = Arrays.copyOf(previousMove, capacity);
+        heapPosition = Arrays.copyOf(heapPosition, capacity);
+    }
+
+    private void rehash(int tableSize) {
+        long[] oldKeys = keys;
+        int[] oldIds = ids;
+        keys = new long[tableSize];
+        ids = new int[tableSize];
+        Arrays.fill(ids, NONE);
+        mask = tableSize - 1;
+        maxFill = HashCommon.maxFill(tableSize, loadFactor);
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] == NONE) {
+                continue;
+            }
+            int slot = (int) HashCommon.mix(oldKeys[i]) & mask;
+            while (ids[slot] != NONE) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            ids[slot] = oldIds[i];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int x(int id) {
+        return x[id];
+    }
+
+    public int y(int id) {
+        return y[id];
+    }
+
+    public int z(int id) {
+        return z[id];
+    }
+
+    public double estimatedCostToGoal(int id) {
+        return estimatedCostToGoal[id];
+    }
+
+    public double cost(int id) {
+        return cost[id];
+    }
+
+    public void setCost(int id, double cost) {
+        this.cost[id] = cost;
+    }
+
+    public double combinedCost(int id) {
+        return combinedCost[id];
+    }
+
+    public void setCombinedCost(int id, double combinedCost) {
+        this.combinedCost[id] = combinedCost;
+    }
+
+    public int previous(int id) {
+        return previous[id];
+    }
+
+    public void setPrevious(int id, int previous) {
+        this.previous[id] = previous;
+    }
+
+    /**
+     * @return The movement that got to this node from {@link #previous(int)}, or null if there is none
+     */
+    public Moves previousMove(int id) {
+        int ordinal = previousMove[id] - 1;
+        return ordinal < 0 ? null : MOVES[ordinal];
+    }
+
+    public void setPreviousMove(int id, Moves moves) {
+        this.previousMove[id] = (byte) (moves.ordinal() + 1);
+    }
+
+    public int heapPosition(int id) {
+        return heapPosition[id];
+    }
+
+    public void setHeapPosition(int id, int heapPosition) {
+        this.heapPosition[id] = heapPosition;
+    }
+
+    public boolean isOpen(int id) {
+        return heapPosition[id] != -1;
+    }
+
+    /**
+     * @param end The last node of the path
+     * @return The positions from the root of the search tree to {@code end}, in order
+     */
+    BetterBlockPos[] positions(int end) {
+        BetterBlockPos[] result = new BetterBlockPos[depth(end)];
+        for (int i = result.length - 1, id = end; i >= 0; i--, id = previous[id]) {
+            result[i] = new BetterBlockPos(x[id], y[id], z[id]);
+        }
+        return result;
+    }
+
+    /**
+     * @param end The last node of the path
+     * @return The cost of every node from the root of the search tree to {@code end}, in order
+     */
+    double[] costs(int end) {
+        double[] result = new double[depth(end)];
+        for (int i = result.length - 1, id = end; i >= 0; i--, id = previous[id]) {
+            result[i] = cost[id];
+        }
+        return result;
+    }
+
+    /**
+     * @param end The last node of the path
+     * @return The movement between every pair of consecutive nodes from the root of the search tree to {@code end}
+     */
+    Moves[] moves(int end) {
+        Moves[] result = new Moves[depth(end) - 1];
+        for (int i = result.length - 1, id = end; i >= 0; i--, id = previous[id]) {
+            result[i] = previousMove(id);
+        }
+        return result;
+    }
+
+    private int depth(int end) {
+        int depth = 0;
+        for (int id = end; id != NONE; id = previous[id]) {
+            depth++;
+        }
+        return depth;
+    }
+}
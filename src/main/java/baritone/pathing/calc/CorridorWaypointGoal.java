@@ -0,0 +1,114 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalXZ;
+import baritone.api.utils.Helper;
+import baritone.pathing.movement.CalculationContext;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Stands in for a far away goal. Once the path calculation starts, it plans a rough route to that goal across whole
+ * chunks, and from then on stands in for a waypoint some distance along that route instead. The route is planned on
+ * the calculation's thread because it can take a while, and may have to load cached regions from disk.
+ *
+ * @see baritone.api.Settings#hierarchicalPathing
+ * @see ChunkCorridorSearch
+ */
+public final class CorridorWaypointGoal implements Goal {
+
+    private final BlockPos start;
+    private final BlockPos target;
+    private final Goal goal;
+    private final CalculationContext context;
+
+    /**
+     * Null until {@link #plan}, only read by the thread that called it and the ones it started afterwards
+     */
+    private Goal waypoint;
+
+    /**
+     * @param start   Where the path calculation starts
+     * @param target  The position to plan a route to
+     * @param goal    The goal {@code target} is from
+     * @param context The context of the path calculation
+     */
+    public CorridorWaypointGoal(BlockPos start, BlockPos target, Goal goal, CalculationContext context) {
+        this.start = start;
+        this.target = target;
+        this.goal = goal;
+        this.context = context;
+    }
+
+    /**
+     * Plans the route and picks the waypoint, if that hasn't been done yet. Without a route, e.g. if planning was
+     * stopped, this keeps standing in for the goal itself.
+     *
+     * @param stop Checked every chunk, planning gives up as soon as this is true
+     */
+    void plan(BooleanSupplier stop) {
+        if (waypoint != null) {
+            return;
+        }
+        Goal planned = goal;
+        Optional<LongList> corridor = new ChunkCorridorSearch(context).findCorridor(start.getX(), start.getZ(), target.getX(), target.getZ(), Baritone.settings().hierarchicalPathingMaxChunks.value, stop);
+        int index = Baritone.settings().hierarchicalPathingWaypointDistance.value >> 4;
+        if (corridor.isPresent() && index < corridor.get().size() - 1) { // otherwise the goal is closer than the next waypoint
+            long chunk = corridor.get().getLong(index);
+            Helper.HELPER.logDebug("Following a route of " + corridor.get().size() + " chunks, pathing to waypoint " + index);
+            planned = new GoalXZ(ChunkPos.getX(chunk) << 4 | 8, ChunkPos.getZ(chunk) << 4 | 8);
+        }
+        waypoint = planned;
+    }
+
+    /**
+     * @return The waypoint, or the goal itself if there's no route or it hasn't been planned yet
+     */
+    public Goal waypoint() {
+        Goal waypoint = this.waypoint;
+        return waypoint != null ? waypoint : goal;
+    }
+
+    @Override
+    public boolean isInGoal(int x, int y, int z) {
+        return waypoint().isInGoal(x, y, z);
+    }
+
+    @Override
+    public double heuristic(int x, int y, int z) {
+        return waypoint().heuristic(x, y, z);
+    }
+
+    @Override
+    public double heuristic() {
+        return waypoint().heuristic();
+    }
+
+    @Override
+    public String toString() {
+        return "CorridorWaypointGoal{goal=" + goal + ",waypoint=" + waypoint + "}";
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package baritone.pathing.calc;
+
+import baritone.pathing.movement.Moves;
+import baritone.utils.pathing.MutableMoveResult;
+import it.unimi.dsi.fastutil.HashCommon;
+
+/**
+ * Remembers the results of movements with a dynamic destination (descend, diagonal and parkour), which scan down for
+ * the ground or across for a landing spot. A node is expanded again every time a cheaper way to it is found, and
+ * those scans would come out exactly the same every time.
+ * <p>
+ * This is a fixed size direct mapped table, a new result simply overwrites whatever was in its slot, so it never
+ * grows no matter how big the search gets. It belongs to one calculation, whose blocks don't change while it runs,
+ * so nothing in it ever needs to be invalidated.
+ *
+ * @see baritone.api.Settings#pathingMoveMemoSize
+ */
+final class MoveResultMemo {
+
+    private final long[] keys;
+    private final byte[] ordinals; // ordinal + 1, 0 for an empty slot
+    private final int[] x;
+    private final int[] y;
+    private final int[] z;
+    private final double[] cost;
+    private final int mask;
+
+    /**
+     * @param size How many results to hold at most, rounded up to a power of two
+     */
+    MoveResultMemo(int size) {
+        int capacity = HashCommon.nextPowerOfTwo(Math.max(16, size));
+        this.keys = new long[capacity];
+        this.ordinals = new byte[capacity];
+        this.x = new int[capacity];
+        this.y = new int[capacity];
+        this.z = new int[capacity];
+        this.cost = new double[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @return Whether the result of this movement is worth remembering at all
+     */
+    static boolean isMemoized(Moves moves) {
+        return moves.dynamicXZ || moves.dynamicY;
+    }
+
+    private int slot(long hashCode, Moves moves) {
+        return (int) HashCommon.mix(hashCode + moves.ordinal() * 0x9E3779B97F4A7C15L) & mask;
+    }
+
+    /**
+     * @param hashCode The hash code of the position the movement starts at
+     * @param moves    The movement
+     * @param result   Where to put the result, if it's known
+     * @return Whether the result was known
+     */
+    boolean get(long hashCode, Moves moves, MutableMoveResult result) {
+        int slot = slot(hashCode, moves);
+        if (ordinals[slot] != moves.ordinal() + 1 || keys[slot] != hashCode) {
+            return false;
+        }
+        result.x = x[slot];
+        result.y = y[slot];
+        result.z = z[slot];
+        result.cost = cost[slot];
+        return true;
+    }
+
+    void put(long hashCode, Moves moves, MutableMoveResult result) {
+        int slot = slot(hashCode, moves);
+        keys[slot] = hashCode;
+        ordinals[slot] = (byte) (moves.ordinal() + 1);
+        x[slot] = result.x;
+        y[slot] = result.y;
+        z[slot] = result.z;
+        cost[slot] = result.cost;
+    }
+}
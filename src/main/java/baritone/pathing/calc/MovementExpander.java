@@ -0,0 +1,172 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.pathing.movement.ActionCosts;
+import baritone.pathing.movement.CalculationContext;
+import baritone.pathing.movement.Moves;
+import baritone.utils.BlockStateInterface;
+import baritone.utils.pathing.BetterWorldBorder;
+import baritone.utils.pathing.Favoring;
+import baritone.utils.pathing.MutableMoveResult;
+
+/**
+ * Calculates the movements out of a node, everything about that which doesn't depend on how the nodes are stored.
+ * {@link AStarPathFinder} and {@link CompactAStarPathFinder} each keep their own loop over their own nodes, and both
+ * go through this for the movements, so that they can't drift apart in what they consider.
+ * <p>
+ * One per calculation, and only used by the thread running it.
+ */
+final class MovementExpander {
+
+    private final CalculationContext context;
+    private final BetterWorldBorder worldBorder;
+    private final BlockStateInterface bsi;
+    private final int minY;
+    private final int height;
+    private final Favoring favoring;
+    private final boolean isFavoring;
+    private final boolean timed;
+    private final int[] movementCalls;
+    private final long[] movementNanos;
+    private final MoveResultMemo memo;
+    private final boolean blockWindow;
+    private final boolean symmetryPruning;
+
+    /**
+     * Where the last movement calculated by {@link #cost} ends up
+     */
+    final MutableMoveResult res = new MutableMoveResult();
+
+    int numMovementsConsidered;
+    int numEmptyChunk;
+
+    private int x;
+    private int y;
+    private int z;
+    private long hash;
+    private Moves arrival;
+
+    MovementExpander(CalculationContext context, Favoring favoring, SearchStats stats) {
+        this.context = context;
+        this.worldBorder = context.worldBorder;
+        this.bsi = context.bsi;
+        this.minY = context.minY;
+        this.height = context.height;
+        this.favoring = favoring;
+        this.isFavoring = !favoring.isEmpty();
+        this.timed = stats.timed;
+        this.movementCalls = stats.movementCalls;
+        this.movementNanos = stats.movementNanos;
+        int memoSize = Baritone.settings().pathingMoveMemoSize.value;
+        this.memo = memoSize > 0 ? new MoveResultMemo(memoSize) : null;
+        this.blockWindow = Baritone.settings().pathingBlockWindow.value;
+        this.symmetryPruning = Baritone.settings().pathingSymmetryPruning.value && !isFavoring; // favoring makes the costs depend on the exact position
+    }
+
+    /**
+     * Starts on the movements out of a node
+     *
+     * @param x         The x position of the node
+     * @param y         The y position of the node
+     * @param z         The z position of the node
+     * @param hash      The position hash of the node
+     * @param arrival   The movement that got to the node, null for the start
+     * @param previousY The y position of the node before it, ignored for the start
+     */
+    void expand(int x, int y, int z, long hash, Moves arrival, int previousY) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.hash = hash;
+        if (blockWindow) {
+            bsi.centerWindow(x, y, z);
+        }
+        boolean prune = symmetryPruning
+                && arrival != null
+                && SymmetryPruning.isFlat(arrival)
+                && previousY == y
+                && SymmetryPruning.isUniform(bsi, x, y, z);
+        this.arrival = prune ? arrival : null;
+    }
+
+    /**
+     * Calculates a movement out of the node passed to {@link #expand}, leaving where it ends up in {@link #res}
+     *
+     * @param moves The movement
+     * @return Its cost, with favoring applied, or {@link ActionCosts#COST_INF} if it can't or doesn't need to be taken
+     */
+    double cost(Moves moves) {
+        if (arrival != null && SymmetryPruning.isFlat(moves) && SymmetryPruning.isPruned(arrival, moves)) {
+            return ActionCosts.COST_INF;
+        }
+        int newX = x + moves.xOffset;
+        int newZ = z + moves.zOffset;
+        if ((newX >> 4 != x >> 4 || newZ >> 4 != z >> 4) && !context.isLoaded(newX, newZ)) {
+            // only need to check if the destination is a loaded chunk if it's in a different chunk than the start of the movement
+            if (!moves.dynamicXZ) { // only increment the counter if the movement would have gone out of bounds guaranteed
+                numEmptyChunk++;
+            }
+            return ActionCosts.COST_INF;
+        }
+        if (!moves.dynamicXZ && !worldBorder.entirelyContains(newX, newZ)) {
+            return ActionCosts.COST_INF;
+        }
+        if (y + moves.yOffset > height || y + moves.yOffset < minY) {
+            return ActionCosts.COST_INF;
+        }
+        res.reset();
+        boolean memoized = memo != null && MoveResultMemo.isMemoized(moves);
+        if (!memoized || !memo.get(hash, moves, res)) {
+            if (timed) {
+                long before = System.nanoTime();
+                moves.apply(context, x, y, z, res);
+                movementNanos[moves.ordinal()] += System.nanoTime() - before;
+            } else {
+                moves.apply(context, x, y, z, res);
+            }
+            movementCalls[moves.ordinal()]++;
+            if (memoized) {
+                memo.put(hash, moves, res);
+            }
+        }
+        numMovementsConsidered++;
+        double actionCost = res.cost;
+        if (Double.isNaN(actionCost)) {
+            throw new IllegalStateException(moves + " calculated implausible cost " + actionCost);
+        }
+        if (actionCost <= 0) {
+            actionCost = -actionCost;
+        }
+        if (actionCost >= ActionCosts.COST_INF) {
+            return ActionCosts.COST_INF;
+        }
+        // check destination after verifying it's not COST_INF -- some movements return COST_INF without adjusting the destination
+        if (moves.dynamicXZ && !worldBorder.entirelyContains(res.x, res.z)) { // see issue #218
+            return ActionCosts.COST_INF;
+        }
+        AbstractNodeCostSearch.checkMoveDestination(moves, x, y, z, res, newX, newZ);
+        if (isFavoring) {
+            // see issue #18
+            actionCost *= favoring.calculate(res.x, res.y, res.z);
+        }
+        return actionCost;
+    }
+}
@@ -0,0 +1,417 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.movement.ActionCosts;
+import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.calc.openset.IOpenSet;
+import baritone.pathing.movement.CalculationContext;
+import baritone.pathing.movement.Moves;
+import baritone.utils.pathing.BetterWorldBorder;
+import baritone.utils.pathing.Favoring;
+import baritone.utils.pathing.MutableMoveResult;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hash distributed A*. Every position is owned by exactly one worker thread (picked by its hash), and each worker
+ * runs A* over its own nodes, sending newly found neighbors that belong to another worker to that worker's inbox.
+ * <p>
+ * Unlike {@link AStarPathFinder}, the first node in the goal isn't necessarily the best one, so the search keeps
+ * going until no worker has an open node that could still beat the best goal node found so far.
+ *
+ * @see baritone.api.Settings#pathingThreads
+ */
+public final class ParallelAStarPathFinder extends AbstractNodeCostSearch {
+
+    private final Favoring favoring;
+    private final CalculationContext calcContext;
+    private final Worker[] workers;
+
+    /**
+     * Messages that have been sent to a worker, but not yet processed by it
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Bumped every time a worker processes a message, so that termination detection can tell that nothing happened
+     * while it was looking at the workers
+     */
+    private final AtomicLong epoch = new AtomicLong();
+
+    private final AtomicInteger numEmptyChunk = new AtomicInteger();
+
+    private final double[] bestHeuristicSoFar = new double[COEFFICIENTS.length];
+
+    private volatile PathNode bestGoal;
+    private volatile boolean failing;
+    private volatile boolean stop;
+
+    private int minY;
+    private int height;
+    private BetterWorldBorder worldBorder;
+    private boolean isFavoring;
+    private double minimumImprovement;
+
+    public ParallelAStarPathFinder(BetterBlockPos realStart, int startX, int startY, int startZ, Goal goal, Favoring favoring, CalculationContext context, int numThreads) {
+        super(realStart, startX, startY, startZ, goal, context);
+        this.favoring = favoring;
+        this.calcContext = this.context; // the search's own copy, not the one that was passed in
+        this.workers = new Worker[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            workers[i] = new Worker(i);
+        }
+    }
+
+    @Override
+    protected Optional<IPath> calculate0(long primaryTimeout, long failureTimeout) {
+        minY = calcContext.minY;
+        height = calcContext.height;
+        worldBorder = calcContext.worldBorder;
+        isFavoring = !favoring.isEmpty();
+        minimumImprovement = Baritone.settings().minimumImprovementRepropagation.value ? MIN_IMPROVEMENT : 0;
+        int pathingMaxChunkBorderFetch = Baritone.settings().pathingMaxChunkBorderFetch.value; // grab all settings beforehand so that changing settings during pathing doesn't cause a crash or unpredictable behavior
+
+        long startHash = BetterBlockPos.longHash(startX, startY, startZ);
+        Worker startOwner = ownerOf(startHash);
+        startNode = startOwner.getNode(startX, startY, startZ, startHash);
+        startNode.cost = 0;
+        startNode.combinedCost = startNode.estimatedCostToGoal;
+        startOwner.openSet.insert(startNode);
+        for (int i = 0; i < bestHeuristicSoFar.length; i++) {
+            bestHeuristicSoFar[i] = startNode.estimatedCostToGoal;
+            bestSoFar[i] = startNode;
+        }
+        failing = true;
+
+        long startTime = System.currentTimeMillis();
+        long primaryTimeoutTime = startTime + primaryTimeout;
+        long failureTimeoutTime = startTime + failureTimeout;
+        CountDownLatch finished = new CountDownLatch(workers.length);
+        for (Worker worker : workers) {
+            Baritone.getExecutor().execute(() -> {
+                try {
+                    worker.run();
+                } catch (Throwable th) {
+                    worker.error = th;
+                    stop = true;
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+        try {
+            while (!stop) {
+                long now = System.currentTimeMillis();
+                if (cancelRequested || now - failureTimeoutTime >= 0 || (!failing && now - primaryTimeoutTime >= 0)) {
+                    break;
+                }
+                if (numEmptyChunk.get() >= pathingMaxChunkBorderFetch) {
+                    break;
+                }
+                if (isExhausted()) {
+                    break;
+                }
+                PathNode mostRecent = mostRecentConsidered;
+                if (mostRecent != null && progressDue(now)) {
+                    publishProgress(new Path(realStart, startNode, mostRecent, 0, goal, calcContext), 0);
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        } finally {
+            stop = true;
+            try {
+                finished.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        long duration = System.currentTimeMillis() - startTime;
+        for (Worker worker : workers) {
+            worker.stats.set(worker.numNodes, worker.numMovementsConsidered, 0, worker.openSetHighWaterMark);
+            stats.add(worker.stats);
+            logDebug("Pathing worker " + worker.index + ": " + worker.numNodes + " nodes, " + (int) (worker.numNodes * 1.0 / (duration / 1000F)) + " nodes per second");
+        }
+        logDebug((int) (stats.nodesExpanded * 1.0 / (duration / 1000F)) + " nodes per second");
+        stats.chunkBorderFetchFailures = numEmptyChunk.get();
+        for (Worker worker : workers) {
+            if (worker.error != null) {
+                throw new IllegalStateException("Pathing worker " + worker.index + " failed", worker.error);
+            }
+        }
+        if (cancelRequested) {
+            return Optional.empty();
+        }
+        int numNodes = stats.nodesExpanded;
+        int numMovementsConsidered = stats.movementsConsidered;
+        PathNode goalNode = bestGoal;
+        if (goalNode != null) {
+            logDebug("Took " + duration + "ms, " + numMovementsConsidered + " movements considered");
+            return Optional.of(new Path(realStart, startNode, goalNode, numNodes, goal, calcContext));
+        }
+        Optional<IPath> result = bestSoFar(true, numNodes);
+        if (result.isPresent()) {
+            logDebug("Took " + duration + "ms, " + numMovementsConsidered + " movements considered");
+        }
+        return result;
+    }
+
+    /**
+     * @return Whether no worker has anything left to do that could possibly improve the result
+     */
+    private boolean isExhausted() {
+        long before = epoch.get();
+        for (Worker worker : workers) {
+            if (!worker.idle) {
+                return false;
+            }
+        }
+        return inFlight.get() == 0 && epoch.get() == before;
+    }
+
+    private Worker ownerOf(long hashCode) {
+        return workers[(int) ((HashCommon.mix(hashCode) >>> 1) % workers.length)];
+    }
+
+    private void updateBestSoFar(PathNode node) {
+        synchronized (bestHeuristicSoFar) {
+            for (int i = 0; i < COEFFICIENTS.length; i++) {
+                double heuristic = node.estimatedCostToGoal + node.cost / COEFFICIENTS[i];
+                if (bestHeuristicSoFar[i] - heuristic > minimumImprovement) {
+                    bestHeuristicSoFar[i] = heuristic;
+                    bestSoFar[i] = node;
+                    if (failing && getDistFromStartSq(node) > MIN_DIST_PATH * MIN_DIST_PATH) {
+                        failing = false;
+                    }
+                }
+            }
+        }
+    }
+
+    private void reachedGoal(PathNode node) {
+        synchronized (this) {
+            PathNode current = bestGoal;
+            if (current == null || node.cost < current.cost) {
+                bestGoal = node;
+            }
+        }
+        failing = false;
+    }
+
+    @Override
+    protected int mapSize() {
+        int size = 0;
+        for (Worker worker : workers) {
+            size += worker.map.size();
+        }
+        return size;
+    }
+
+    /**
+     * A neighbor that was found by one worker, but is owned by another
+     */
+    private static final class Message {
+
+        final int x;
+        final int y;
+        final int z;
+        final long hashCode;
+        final double cost;
+        final PathNode previous;
+        final Moves previousMove;
+
+        Message(int x, int y, int z, long hashCode, double cost, PathNode previous, Moves previousMove) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.hashCode = hashCode;
+            this.cost = cost;
+            this.previous = previous;
+            this.previousMove = previousMove;
+        }
+    }
+
+    private final class Worker {
+
+        final int index;
+        final Long2ObjectOpenHashMap<PathNode> map = new Long2ObjectOpenHashMap<>(Baritone.settings().pathingMapDefaultSize.value, Baritone.settings().pathingMapLoadFactor.value);
+        final IOpenSet openSet = createOpenSet();
+        final ConcurrentLinkedQueue<Message> inbox = new ConcurrentLinkedQueue<>();
+        final MutableMoveResult res = new MutableMoveResult();
+        final double[] localBestHeuristic = new double[COEFFICIENTS.length];
+
+        volatile boolean idle;
+        volatile Throwable error;
+        int numNodes;
+        int numMovementsConsidered;
+        int openSetHighWaterMark;
+        final SearchStats stats = new SearchStats(ParallelAStarPathFinder.this.stats.timed);
+
+        Worker(int index) {
+            this.index = index;
+            for (int i = 0; i < localBestHeuristic.length; i++) {
+                localBestHeuristic[i] = Double.MAX_VALUE;
+            }
+        }
+
+        PathNode getNode(int x, int y, int z, long hashCode) {
+            PathNode node = map.get(hashCode);
+            if (node == null) {
+                node = new PathNode(x, y, z, heuristicGoal);
+                map.put(hashCode, node);
+            }
+            return node;
+        }
+
+        void run() {
+            Moves[] allMoves = Moves.values();
+            TimeCheck timeCheck = new TimeCheck(); // only for the CPU budget, the coordinating thread handles timeouts
+            while (!stop) {
+                Message message;
+                while ((message = inbox.poll()) != null) {
+                    relax(getNode(message.x, message.y, message.z, message.hashCode), message.cost, message.previous, message.previousMove);
+                    idle = false;
+                    epoch.incrementAndGet();
+                    inFlight.decrementAndGet();
+                }
+                if (openSet.isEmpty()) {
+                    idle = true;
+                    LockSupport.parkNanos(50_000);
+                    continue;
+                }
+                PathNode currentNode = openSet.removeLowest();
+                PathNode goalNode = bestGoal;
+                if (goalNode != null && currentNode.combinedCost >= goalNode.cost) {
+                    // nothing left in here can beat the goal node we already have
+                    openSet.insert(currentNode);
+                    idle = true;
+                    LockSupport.parkNanos(50_000);
+                    continue;
+                }
+                idle = false;
+                mostRecentConsidered = currentNode;
+                numNodes++;
+                if (timeCheck.isDue(numNodes)) {
+                    timeCheck.sample(numNodes);
+                }
+                if (goal.isInGoal(currentNode.x, currentNode.y, currentNode.z)) {
+                    reachedGoal(currentNode);
+                    continue;
+                }
+                expand(currentNode, allMoves);
+            }
+        }
+
+        void expand(PathNode currentNode, Moves[] allMoves) {
+            for (Moves moves : allMoves) {
+                int newX = currentNode.x + moves.xOffset;
+                int newZ = currentNode.z + moves.zOffset;
+                if ((newX >> 4 != currentNode.x >> 4 || newZ >> 4 != currentNode.z >> 4) && !calcContext.isLoaded(newX, newZ)) {
+                    // only need to check if the destination is a loaded chunk if it's in a different chunk than the start of the movement
+                    if (!moves.dynamicXZ) { // only increment the counter if the movement would have gone out of bounds guaranteed
+                        numEmptyChunk.incrementAndGet();
+                    }
+                    continue;
+                }
+                if (!moves.dynamicXZ && !worldBorder.entirelyContains(newX, newZ)) {
+                    continue;
+                }
+                if (currentNode.y + moves.yOffset > height || currentNode.y + moves.yOffset < minY) {
+                    continue;
+                }
+                res.reset();
+                if (stats.timed) {
+                    long before = System.nanoTime();
+                    moves.apply(calcContext, currentNode.x, currentNode.y, currentNode.z, res);
+                    stats.movementNanos[moves.ordinal()] += System.nanoTime() - before;
+                } else {
+                    moves.apply(calcContext, currentNode.x, currentNode.y, currentNode.z, res);
+                }
+                stats.movementCalls[moves.ordinal()]++;
+                numMovementsConsidered++;
+                double actionCost = res.cost;
+                if (Double.isNaN(actionCost)) {
+                    throw new IllegalStateException(moves + " calculated implausible cost " + actionCost);
+                }
+                if (actionCost <= 0) {
+                    actionCost = -actionCost;
+                }
+                if (actionCost >= ActionCosts.COST_INF) {
+                    continue;
+                }
+                // check destination after verifying it's not COST_INF -- some movements return COST_INF without adjusting the destination
+                if (moves.dynamicXZ && !worldBorder.entirelyContains(res.x, res.z)) { // see issue #218
+                    continue;
+                }
+                checkMoveDestination(moves, currentNode.x, currentNode.y, currentNode.z, res, newX, newZ);
+                long hashCode = BetterBlockPos.longHash(res.x, res.y, res.z);
+                if (isFavoring) {
+                    // see issue #18
+                    actionCost *= favoring.calculate(res.x, res.y, res.z);
+                }
+                double tentativeCost = currentNode.cost + actionCost;
+                Worker owner = ownerOf(hashCode);
+                if (owner == this) {
+                    relax(getNode(res.x, res.y, res.z, hashCode), tentativeCost, currentNode, moves);
+                } else {
+                    // count it before it's visible in the inbox, so that termination detection can never miss it
+                    inFlight.incrementAndGet();
+                    owner.inbox.add(new Message(res.x, res.y, res.z, hashCode, tentativeCost, currentNode, moves));
+                }
+            }
+        }
+
+        void relax(PathNode neighbor, double tentativeCost, PathNode previous, Moves previousMove) {
+            if (neighbor.cost - tentativeCost > minimumImprovement) {
+                neighbor.previous = previous;
+                neighbor.previousMove = previousMove;
+                neighbor.cost = tentativeCost;
+                neighbor.combinedCost = tentativeCost + neighbor.estimatedCostToGoal;
+                if (neighbor.isOpen()) {
+                    openSet.update(neighbor);
+                } else {
+                    openSet.insert(neighbor);//dont double count, dont insert into open set if it's already there
+                    openSetHighWaterMark = Math.max(openSetHighWaterMark, openSet.size());
+                }
+                // only take the lock when this node is at least the best one this worker has seen
+                boolean improved = false;
+                for (int i = 0; i < COEFFICIENTS.length; i++) {
+                    double heuristic = neighbor.estimatedCostToGoal + neighbor.cost / COEFFICIENTS[i];
+                    if (localBestHeuristic[i] - heuristic > minimumImprovement) {
+                        localBestHeuristic[i] = heuristic;
+                        improved = true;
+                    }
+                }
+                if (improved) {
+                    updateBestSoFar(neighbor);
+                }
+            }
+        }
+    }
+}
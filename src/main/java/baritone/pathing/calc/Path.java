@@ -28,10 +28,12 @@ import baritone.pathing.movement.Moves;
 import baritone.pathing.path.CutoffPath;
 import baritone.utils.pathing.PathBase;
 import com.google.common.collect.Lists;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.doubles.DoubleArrays;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -59,7 +61,15 @@ class Path extends PathBase {
 
     private final List<Movement> movements;
 
-    private final List<PathNode> nodes;
+    /**
+     * The cost of getting from the start of the search to each position in {@link #path}
+     */
+    private final double[] costs;
+
+    /**
+     * The movement the search used between each position in {@link #path} and the next one, null where it isn't known
+     */
+    private final Moves[] moves;
 
     private final Goal goal;
 
@@ -70,39 +80,67 @@ class Path extends PathBase {
     private volatile boolean verified;
 
     Path(BetterBlockPos realStart, PathNode start, PathNode end, int numNodes, Goal goal, CalculationContext context) {
-        this.end = new BetterBlockPos(end.x, end.y, end.z);
+        this(realStart, positionsTo(end), costsTo(end), movesTo(end), numNodes, goal, context);
+    }
+
+    Path(BetterBlockPos realStart, CompactNodeStore store, int end, int numNodes, Goal goal, CalculationContext context) {
+        this(realStart, store.positions(end), store.costs(end), store.moves(end), numNodes, goal, context);
+    }
+
+    /**
+     * @param positions The positions on the path, from the node A* started at to the end
+     * @param costs     The node cost of each position in {@code positions}
+     * @param moves     The movement between each position in {@code positions} and the next one
+     */
+    private Path(BetterBlockPos realStart, BetterBlockPos[] positions, double[] costs, Moves[] moves, int numNodes, Goal goal, CalculationContext context) {
+        this.end = positions[positions.length - 1];
         this.numNodes = numNodes;
         this.movements = new ArrayList<>();
         this.goal = goal;
         this.context = context;
 
-        PathNode current = end;
-        List<BetterBlockPos> tempPath = new ArrayList<>();
-        List<PathNode> tempNodes = new ArrayList<>();
-        while (current != null) {
-            tempNodes.add(current);
-            tempPath.add(new BetterBlockPos(current.x, current.y, current.z));
-            current = current.previous;
-        }
-
         // If the position the player is at is different from the position we told A* to start from,
         // and A* gave us no movements, then add a fake node that will allow a movement to be created
         // that gets us to the single position in the path.
         // See PathingBehavior#createPathfinder and https://github.com/cabaletta/baritone/pull/4519
-        var startNodePos = new BetterBlockPos(start.x, start.y, start.z);
-        if (!realStart.equals(startNodePos) && start.equals(end)) {
+        if (!realStart.equals(positions[0]) && positions.length == 1) {
             this.start = realStart;
-            PathNode fakeNode = new PathNode(realStart.x, realStart.y, realStart.z, goal);
-            fakeNode.cost = 0;
-            tempNodes.add(fakeNode);
-            tempPath.add(realStart);
+            this.path = Arrays.asList(realStart, positions[0]);
+            this.costs = new double[]{0, costs[0]};
+            this.moves = new Moves[1];
         } else {
-            this.start = startNodePos;
+            this.start = positions[0];
+            this.path = Arrays.asList(positions);
+            this.costs = costs;
+            this.moves = moves;
         }
+    }
 
+    private static BetterBlockPos[] positionsTo(PathNode end) {
+        List<BetterBlockPos> tempPath = new ArrayList<>();
+        for (PathNode current = end; current != null; current = current.previous) {
+            tempPath.add(new BetterBlockPos(current.x, current.y, current.z));
+        }
         // Nodes are traversed last to first so we need to reverse the list
-        this.path = Lists.reverse(tempPath);
-        this.nodes = Lists.reverse(tempNodes);
+        return Lists.reverse(tempPath).toArray(new BetterBlockPos[0]);
+    }
+
+    private static double[] costsTo(PathNode end) {
+        DoubleArrayList tempCosts = new DoubleArrayList();
+        for (PathNode current = end; current != null; current = current.previous) {
+            tempCosts.add(current.cost);
+        }
+        double[] costs = tempCosts.toDoubleArray();
+        DoubleArrays.reverse(costs);
+        return costs;
+    }
+
+    private static Moves[] movesTo(PathNode end) {
+        List<Moves> tempMoves = new ArrayList<>();
+        for (PathNode current = end; current.previous != null; current = current.previous) {
+            tempMoves.add(current.previousMove);
+        }
+        return Lists.reverse(tempMoves).toArray(new Moves[0]);
     }
 
     @Override
@@ -115,25 +153,43 @@ class Path extends PathBase {
             throw new IllegalStateException("Path must not be empty");
         }
         for (int i = 0; i < path.size() - 1; i++) {
-            double cost = nodes.get(i + 1).cost - nodes.get(i).cost;
-            Movement move = runBackwards(path.get(i), path.get(i + 1), cost);
+            Movement move = assemble(i);
             if (move == null) {
                 return true;
-            } else {
-                movements.add(move);
             }
+            movements.add(move);
         }
         return false;
     }
 
-    private Movement runBackwards(BetterBlockPos src, BetterBlockPos dest, double cost) {
+    private Movement assemble(int i) {
+        BetterBlockPos src = path.get(i);
+        BetterBlockPos dest = path.get(i + 1);
+        Movement move = null;
+        if (moves[i] != null) {
+            move = moves[i].apply0(context, src);
+            if (!move.getDest().equals(dest)) {
+                move = null; // a dynamic movement that ends up somewhere else now, see if any other one still fits
+            }
+        }
+        if (move == null) {
+            move = runBackwards(src, dest);
+            if (move == null) {
+                return null;
+            }
+        }
+        // have to calculate the cost at calculation time so we can accurately judge whether a cost increase happened between cached calculation and real execution
+        // however, taking into account possible favoring that could skew the node cost, we really want the stricter limit of the two
+        // so we take the minimum of the path node cost difference, and the calculated cost
+        move.override(Math.min(move.calculateCost(context), costs[i + 1] - costs[i]));
+        move.checkLoadedChunk(context);
+        return move;
+    }
+
+    private Movement runBackwards(BetterBlockPos src, BetterBlockPos dest) {
         for (Moves moves : Moves.values()) {
             Movement move = moves.apply0(context, src);
             if (move.getDest().equals(dest)) {
-                // have to calculate the cost at calculation time so we can accurately judge whether a cost increase happened between cached calculation and real execution
-                // however, taking into account possible favoring that could skew the node cost, we really want the stricter limit of the two
-                // so we take the minimum of the path node cost difference, and the calculated cost
-                move.override(Math.min(move.calculateCost(context), cost));
                 return move;
             }
         }
@@ -149,7 +205,6 @@ class Path extends PathBase {
         }
         verified = true;
         boolean failed = assembleMovements();
-        movements.forEach(m -> m.checkLoadedChunk(context));
 
         if (failed) { // at least one movement became impossible during calculation
             CutoffPath res = new CutoffPath(this, movements().size());
@@ -21,6 +21,7 @@ import baritone.api.pathing.goals.Goal;
 import baritone.api.pathing.movement.ActionCosts;
 import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.SettingsUtil;
+import baritone.pathing.movement.Moves;
 
 /**
  * A node in the path, containing the cost and steps to get to it.
@@ -59,6 +60,11 @@ public final class PathNode {
      */
     public PathNode previous;
 
+    /**
+     * The movement that got here from {@link #previous}, so the path doesn't have to figure it out again afterwards
+     */
+    public Moves previousMove;
+
     /**
      * Where is this node in the array flattenization of the binary heap? Needed for decrease-key operations.
      */
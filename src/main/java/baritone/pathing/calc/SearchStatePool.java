@@ -0,0 +1,105 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.pathing.goals.Goal;
+import baritone.pathing.calc.openset.BinaryHeapOpenSet;
+import baritone.pathing.calc.openset.CompactBinaryHeapOpenSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the node map and heap of the last finished calculation around, cleared, so that the next one doesn't have to
+ * allocate and grow them all over again. Back to back segments while mining or building would otherwise throw away and
+ * rebuild the same structures dozens of times a minute.
+ * <p>
+ * There's only ever one calculation at a time per {@link baritone.behavior.PathingBehavior}, so this only holds one
+ * {@link State}. If it's somehow already taken, the second calculation just gets a fresh one.
+ *
+ * @see baritone.api.Settings#pathingReuseSearchState
+ */
+public final class SearchStatePool {
+
+    /**
+     * Anything bigger than this is shrunk when it's handed back, so that one huge calculation doesn't keep hundreds
+     * of megabytes alive forever
+     */
+    static final int MAX_RETAINED_NODES = 1 << 18;
+
+    private final AtomicReference<State> idle = new AtomicReference<>();
+
+    /**
+     * @return Cleared search state, to give to a path finder, which hands it back once its calculation is over
+     */
+    public State acquire() {
+        State state = idle.getAndSet(null);
+        return state != null ? state : new State(this);
+    }
+
+    public static final class State {
+
+        private final SearchStatePool pool;
+
+        final Long2ObjectOpenHashMap<PathNode> map;
+        private final BinaryHeapOpenSet openSet = new BinaryHeapOpenSet();
+
+        // only created if the compact node store is actually used
+        private CompactNodeStore store;
+        private CompactBinaryHeapOpenSet compactOpenSet;
+
+        private State(SearchStatePool pool) {
+            this.pool = pool;
+            this.map = new Long2ObjectOpenHashMap<>(Baritone.settings().pathingMapDefaultSize.value, Baritone.settings().pathingMapLoadFactor.value);
+        }
+
+        BinaryHeapOpenSet openSet() {
+            return openSet;
+        }
+
+        CompactNodeStore store(Goal goal) {
+            if (store == null) {
+                store = new CompactNodeStore(goal, Baritone.settings().pathingMapDefaultSize.value, Baritone.settings().pathingMapLoadFactor.value);
+                compactOpenSet = new CompactBinaryHeapOpenSet(store);
+            } else {
+                store.reset(goal, MAX_RETAINED_NODES);
+            }
+            return store;
+        }
+
+        CompactBinaryHeapOpenSet compactOpenSet() {
+            return compactOpenSet;
+        }
+
+        /**
+         * Clears everything and makes it available to the next calculation. Nothing from this calculation may be
+         * touched afterwards.
+         */
+        void release() {
+            map.clear();
+            map.trim(MAX_RETAINED_NODES);
+            openSet.clear(MAX_RETAINED_NODES);
+            if (compactOpenSet != null) {
+                compactOpenSet.clear(MAX_RETAINED_NODES);
+            }
+            pool.idle.set(this);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.calc.PathCalculationMetrics;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.utils.PathCalculationResult;
+import baritone.pathing.movement.Moves;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counters a path finder fills in while it searches, turned into a {@link PathCalculationMetrics} at the end.
+ * Not thread safe, a multi threaded search keeps one per thread and adds them up.
+ */
+final class SearchStats {
+
+    private static final Moves[] MOVES = Moves.values();
+
+    /**
+     * Whether to also time movements and heuristics, see {@link baritone.api.Settings#pathingMetricsTimings}
+     */
+    final boolean timed;
+
+    int nodesExpanded;
+    int movementsConsidered;
+    int chunkBorderFetchFailures;
+    int openSetHighWaterMark;
+
+    /**
+     * Indexed by {@link Moves#ordinal()}
+     */
+    final int[] movementCalls = new int[MOVES.length];
+    final long[] movementNanos = new long[MOVES.length];
+
+    /**
+     * Added to from whichever thread creates nodes
+     */
+    final LongAdder heuristicNanos = new LongAdder();
+
+    SearchStats(boolean timed) {
+        this.timed = timed;
+    }
+
+    void set(int nodesExpanded, int movementsConsidered, int chunkBorderFetchFailures, int openSetHighWaterMark) {
+        this.nodesExpanded = nodesExpanded;
+        this.movementsConsidered = movementsConsidered;
+        this.chunkBorderFetchFailures = chunkBorderFetchFailures;
+        this.openSetHighWaterMark = openSetHighWaterMark;
+    }
+
+    /**
+     * @return The goal to give new nodes, which adds up the time spent in its heuristic if this is timed
+     */
+    Goal heuristicGoal(Goal goal) {
+        if (!timed) {
+            return goal;
+        }
+        return new Goal() {
+            @Override
+            public boolean isInGoal(int x, int y, int z) {
+                return goal.isInGoal(x, y, z);
+            }
+
+            @Override
+            public double heuristic(int x, int y, int z) {
+                long before = System.nanoTime();
+                double heuristic = goal.heuristic(x, y, z);
+                heuristicNanos.add(System.nanoTime() - before);
+                return heuristic;
+            }
+
+            @Override
+            public double heuristic() {
+                return goal.heuristic();
+            }
+        };
+    }
+
+    void add(SearchStats other) {
+        nodesExpanded += other.nodesExpanded;
+        movementsConsidered += other.movementsConsidered;
+        chunkBorderFetchFailures += other.chunkBorderFetchFailures;
+        openSetHighWaterMark = Math.max(openSetHighWaterMark, other.openSetHighWaterMark); // the peaks of each thread's own open set don't line up in time
+        for (int i = 0; i < MOVES.length; i++) {
+            movementCalls[i] += other.movementCalls[i];
+            movementNanos[i] += other.movementNanos[i];
+        }
+        heuristicNanos.add(other.heuristicNanos.sum());
+    }
+
+    PathCalculationMetrics toMetrics(String finder, long startTime, long durationMillis, PathCalculationResult.Type result, int nodesCreated, long gcCount, long gcMillis) {
+        Map<String, Integer> calls = new LinkedHashMap<>();
+        Map<String, Long> nanos = new LinkedHashMap<>();
+        for (Moves moves : MOVES) {
+            calls.put(moves.name(), movementCalls[moves.ordinal()]);
+            if (timed) {
+                nanos.put(moves.name(), movementNanos[moves.ordinal()]);
+            }
+        }
+        return new PathCalculationMetrics(finder, startTime, durationMillis, result, nodesExpanded, nodesCreated,
+                movementsConsidered, chunkBorderFetchFailures, openSetHighWaterMark, timed ? heuristicNanos.sum() : -1,
+                calls, nanos, gcCount, gcMillis);
+    }
+}
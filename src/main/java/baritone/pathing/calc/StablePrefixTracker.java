@@ -0,0 +1,95 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package baritone.pathing.calc;
+
+import java.util.Arrays;
+
+/**
+ * Watches the path to the node the search is currently expanding, and decides when its start has stopped changing.
+ * <p>
+ * The path to whatever A* expands next jumps around a lot at the far end, but once the search has committed to a way
+ * out of the start area, the first few dozen positions stay the same from one expansion to the next. If every path
+ * seen during a whole window of time agrees on a long enough prefix, that prefix is considered stable.
+ *
+ * @see baritone.api.Settings#pathingStreamPrefix
+ */
+final class StablePrefixTracker {
+
+    private final long windowMillis;
+    private final int minLength;
+
+    private long[] candidate;
+    private int candidateLength;
+    private long windowStart;
+    private boolean done;
+
+    /**
+     * @param windowMillis How long every path has to agree on the prefix for
+     * @param minLength    How many positions the prefix has to have, at least
+     */
+    StablePrefixTracker(long windowMillis, int minLength) {
+        this.windowMillis = windowMillis;
+        this.minLength = Math.max(2, minLength);
+    }
+
+    /**
+     * @return Whether a prefix has already been found, so there's no need to offer any more paths
+     */
+    boolean isDone() {
+        return done;
+    }
+
+    /**
+     * @param now    The current time in milliseconds
+     * @param chain  The position hashes of the path to the node being expanded, starting at the start
+     * @param length How many entries of {@code chain} are used
+     * @return The length of the stable prefix, or 0 if there isn't one (yet)
+     */
+    int offer(long now, long[] chain, int length) {
+        if (done) {
+            return 0;
+        }
+        if (candidate == null) {
+            restart(now, chain, length);
+            return 0;
+        }
+        int common = 0;
+        int max = Math.min(candidateLength, length);
+        while (common < max && candidate[common] == chain[common]) {
+            common++;
+        }
+        candidateLength = common;
+        if (now - windowStart < windowMillis) {
+            return 0;
+        }
+        if (candidateLength >= minLength) {
+            done = true;
+            return candidateLength;
+        }
+        // the search changed its mind too much during this window, try again with the latest path
+        restart(now, chain, length);
+        return 0;
+    }
+
+    private void restart(long now, long[] chain, int length) {
+        candidate = Arrays.copyOf(chain, length);
+        candidateLength = length;
+        windowStart = now;
+    }
+}
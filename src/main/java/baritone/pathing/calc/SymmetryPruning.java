@@ -0,0 +1,99 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package baritone.pathing.calc;
+
+import baritone.pathing.movement.MovementHelper;
+import baritone.pathing.movement.Moves;
+import baritone.pathing.precompute.Ternary;
+import baritone.utils.BlockStateInterface;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.EnumSet;
+
+/**
+ * The neighbor pruning rules of jump point search, applied to traverse and diagonal movements.
+ * <p>
+ * On flat open ground there are many equally cheap orders to take the same traverse and diagonal steps in, and plain
+ * A* puts every one of the resulting nodes in the map. When every column around a node has the same floor and room to
+ * walk, any neighbor other than the ones straight ahead can be reached from the node before it at least as cheaply
+ * without going through this node, so those movements can be skipped.
+ * <p>
+ * Unlike real jump point search, this doesn't skip over intermediate nodes, since every movement of a path is exactly
+ * one step.
+ *
+ * @see baritone.api.Settings#pathingSymmetryPruning
+ */
+final class SymmetryPruning {
+
+    private static final EnumSet<Moves> FLAT = EnumSet.of(
+            Moves.TRAVERSE_NORTH, Moves.TRAVERSE_SOUTH, Moves.TRAVERSE_EAST, Moves.TRAVERSE_WEST,
+            Moves.DIAGONAL_NORTHEAST, Moves.DIAGONAL_NORTHWEST, Moves.DIAGONAL_SOUTHEAST, Moves.DIAGONAL_SOUTHWEST
+    );
+
+    private SymmetryPruning() {}
+
+    /**
+     * @param moves A movement
+     * @return Whether it's one of the movements that pruning applies to
+     */
+    static boolean isFlat(Moves moves) {
+        return FLAT.contains(moves);
+    }
+
+    /**
+     * @param arrival The flat movement that reached the node being expanded
+     * @param moves   A flat movement out of it
+     * @return Whether that movement can be skipped, if the neighborhood is {@link #isUniform uniform}
+     */
+    static boolean isPruned(Moves arrival, Moves moves) {
+        int dx = arrival.xOffset;
+        int dz = arrival.zOffset;
+        if (dx == 0 || dz == 0) {
+            // straight, only keep going straight
+            return moves.xOffset != dx || moves.zOffset != dz;
+        }
+        // diagonal, keep going diagonally, or along either of its two components
+        return !(moves.xOffset == dx && moves.zOffset == dz)
+                && !(moves.xOffset == dx && moves.zOffset == 0)
+                && !(moves.xOffset == 0 && moves.zOffset == dz);
+    }
+
+    /**
+     * @return Whether every column around the position has the same floor, one that can always be walked on and isn't
+     * liquid, and nothing in the way of walking, so that every flat movement between them costs the same
+     */
+    static boolean isUniform(BlockStateInterface bsi, int x, int y, int z) {
+        BlockState floor = bsi.get0(x, y - 1, z);
+        // water and lava floors depend on what's above them and whether they flow, so they aren't uniform even if every
+        // column has the same state
+        if (MovementHelper.canWalkOnBlockState(floor) != Ternary.YES || MovementHelper.isLiquid(floor)) {
+            return false;
+        }
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                if (bsi.get0(x + dx, y - 1, z + dz) != floor
+                        || !bsi.get0(x + dx, y, z + dz).isAir()
+                        || !bsi.get0(x + dx, y + 1, z + dz).isAir()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
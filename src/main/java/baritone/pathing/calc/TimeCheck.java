@@ -0,0 +1,85 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package baritone.pathing.calc;
+
+import baritone.utils.CpuBudget;
+
+/**
+ * Decides how many nodes to expand between checks of the clock. A fixed number of nodes is too many in caves, where
+ * every node runs expensive fall and parkour scans and the timeout gets overshot, and too few on flat ground, where
+ * nodes are cheap. So this measures how long the last batch of nodes took, and sizes the next batch to take about
+ * {@link #TARGET_NANOS}.
+ * <p>
+ * Every check also charges the time spent to the {@link CpuBudget}, and waits if it's used up.
+ */
+final class TimeCheck {
+
+    /**
+     * How long to aim for between checks (about half a millisecond)
+     */
+    private static final long TARGET_NANOS = 500_000;
+
+    private static final int MIN_INTERVAL = 4;
+    private static final int MAX_INTERVAL = 1 << 12;
+
+    private final long startNanos;
+    private final long startMillis;
+
+    private long lastNanos;
+    private int lastNodes;
+    private int interval = 1 << 6;
+    private int nextCheck;
+
+    TimeCheck() {
+        this.startNanos = System.nanoTime();
+        this.startMillis = System.currentTimeMillis();
+        this.lastNanos = startNanos;
+    }
+
+    /**
+     * @param numNodes The number of nodes expanded so far
+     * @return Whether it's time to call {@link #sample}
+     */
+    boolean isDue(int numNodes) {
+        return numNodes >= nextCheck;
+    }
+
+    /**
+     * @param numNodes The number of nodes expanded so far
+     * @return The current time in milliseconds, on the same scale as {@link System#currentTimeMillis()}
+     */
+    long sample(int numNodes) {
+        long now = System.nanoTime();
+        long elapsed = now - lastNanos;
+        int nodes = numNodes - lastNodes;
+        if (nodes > 0 && elapsed > 0) {
+            long ideal = nodes * TARGET_NANOS / elapsed;
+            // one unusually slow or fast batch shouldn't swing it too far
+            ideal = Math.max(interval / 2, Math.min(interval * 2L, ideal));
+            interval = (int) Math.max(MIN_INTERVAL, Math.min(MAX_INTERVAL, ideal));
+        }
+        CpuBudget.charge(elapsed);
+        CpuBudget.throttle();
+        now = System.nanoTime(); // time spent waiting for the budget isn't expansion time
+        lastNanos = now;
+        lastNodes = numNodes;
+        nextCheck = numNodes + interval;
+        return startMillis + (now - startNanos) / 1_000_000;
+    }
+}
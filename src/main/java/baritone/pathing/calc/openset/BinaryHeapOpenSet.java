@@ -52,6 +52,21 @@ public final class BinaryHeapOpenSet implements IOpenSet {
         this.array = new PathNode[size];
     }
 
+    /**
+     * Empties the heap so that it can be used for another calculation
+     *
+     * @param maxCapacity If the backing array has grown bigger than this, it's shrunk back down
+     */
+    public void clear(int maxCapacity) {
+        if (array.length > maxCapacity) {
+            array = new PathNode[INITIAL_CAPACITY];
+        } else {
+            Arrays.fill(array, 1, size + 1, null);
+        }
+        size = 0;
+    }
+
+    @Override
     public int size() {
         return size;
     }
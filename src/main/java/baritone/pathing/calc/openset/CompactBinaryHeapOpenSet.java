@@ -0,0 +1,142 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc.openset;
+
+import baritone.pathing.calc.CompactNodeStore;
+
+import java.util.Arrays;
+
+/**
+ * The same binary heap as {@link BinaryHeapOpenSet}, but over node ids of a {@link CompactNodeStore} instead of
+ * {@link baritone.pathing.calc.PathNode} objects
+ */
+public final class CompactBinaryHeapOpenSet {
+
+    /**
+     * The initial capacity of the heap (2^10)
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final CompactNodeStore store;
+
+    /**
+     * The array backing the heap
+     */
+    private int[] array;
+
+    /**
+     * The size of the heap
+     */
+    private int size;
+
+    public CompactBinaryHeapOpenSet(CompactNodeStore store) {
+        this(store, INITIAL_CAPACITY);
+    }
+
+    public CompactBinaryHeapOpenSet(CompactNodeStore store, int size) {
+        this.store = store;
+        this.size = 0;
+        this.array = new int[size];
+    }
+
+    /**
+     * Empties the heap so that it can be used for another calculation
+     *
+     * @param maxCapacity If the backing array has grown bigger than this, it's shrunk back down
+     */
+    public void clear(int maxCapacity) {
+        if (array.length > maxCapacity) {
+            array = new int[INITIAL_CAPACITY];
+        }
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void insert(int id) {
+        if (size >= array.length - 1) {
+            array = Arrays.copyOf(array, array.length << 1);
+        }
+        size++;
+        store.setHeapPosition(id, size);
+        array[size] = id;
+        update(id);
+    }
+
+    public void update(int id) {
+        int index = store.heapPosition(id);
+        int parentInd = index >>> 1;
+        double cost = store.combinedCost(id);
+        int parent = array[parentInd];
+        while (index > 1 && store.combinedCost(parent) > cost) {
+            array[index] = parent;
+            array[parentInd] = id;
+            store.setHeapPosition(id, parentInd);
+            store.setHeapPosition(parent, index);
+            index = parentInd;
+            parentInd = index >>> 1;
+            parent = array[parentInd];
+        }
+    }
+
+    public int removeLowest() {
+        if (size == 0) {
+            throw new IllegalStateException("Cannot remove from empty heap");
+        }
+        int result = array[1];
+        int val = array[size];
+        array[1] = val;
+        store.setHeapPosition(val, 1);
+        size--;
+        store.setHeapPosition(result, -1);
+        if (size < 2) {
+            return result;
+        }
+        int index = 1;
+        int smallerChild = 2;
+        double cost = store.combinedCost(val);
+        do {
+            int smallerChildId = array[smallerChild];
+            double smallerChildCost = store.combinedCost(smallerChildId);
+            if (smallerChild < size) {
+                int rightChildId = array[smallerChild + 1];
+                double rightChildCost = store.combinedCost(rightChildId);
+                if (smallerChildCost > rightChildCost) {
+                    smallerChild++;
+                    smallerChildCost = rightChildCost;
+                    smallerChildId = rightChildId;
+                }
+            }
+            if (cost <= smallerChildCost) {
+                break;
+            }
+            array[index] = smallerChildId;
+            array[smallerChild] = val;
+            store.setHeapPosition(val, smallerChild);
+            store.setHeapPosition(smallerChildId, index);
+            index = smallerChild;
+        } while ((smallerChild <<= 1) <= size);
+        return result;
+    }
+}
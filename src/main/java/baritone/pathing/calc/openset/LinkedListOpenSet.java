@@ -35,6 +35,15 @@ class LinkedListOpenSet implements IOpenSet {
         return first == null;
     }
 
+    @Override
+    public int size() {
+        int size = 0;
+        for (Node node = first; node != null; node = node.nextOpen) {
+            size++;
+        }
+        return size;
+    }
+
     @Override
     public void insert(PathNode pathNode) {
         Node node = new Node();
@@ -0,0 +1,201 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package baritone.pathing.calc.openset;
+
+import baritone.pathing.calc.PathNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A pairing heap implementation of an open set. Insert and decrease-key are constant time, and all the work is
+ * deferred to removeLowest, which is amortized logarithmic.
+ * <p>
+ * The tree is made of {@link Entry entries} that wrap the nodes, so that nodes don't need any links of their own.
+ * {@link PathNode#heapPosition} is the index of the node's entry in {@link #entries}.
+ */
+public final class PairingHeapOpenSet implements IOpenSet {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private Entry root;
+
+    private int size;
+
+    /**
+     * Every entry ever used, indexed by {@link PathNode#heapPosition}. The ones at {@link #free} aren't in the tree.
+     */
+    private Entry[] entries = new Entry[INITIAL_CAPACITY];
+
+    /**
+     * Indices into {@link #entries} that can be reused, as a stack
+     */
+    private int[] free = new int[INITIAL_CAPACITY];
+
+    private int freeSize;
+
+    /**
+     * How many of {@link #entries} have been created
+     */
+    private int created;
+
+    /**
+     * Reused by removeLowest to pair up the children of the removed root
+     */
+    private final ArrayList<Entry> pairs = new ArrayList<>();
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    @Override
+    public void insert(PathNode node) {
+        int index;
+        if (freeSize > 0) {
+            index = free[--freeSize];
+        } else {
+            if (created == entries.length) {
+                entries = Arrays.copyOf(entries, created << 1);
+            }
+            index = created++;
+            entries[index] = new Entry(index);
+        }
+        Entry entry = entries[index];
+        entry.node = node;
+        node.heapPosition = index;
+        root = root == null ? entry : meld(root, entry);
+        size++;
+    }
+
+    @Override
+    public void update(PathNode node) {
+        Entry entry = entries[node.heapPosition];
+        if (entry == root) {
+            return;
+        }
+        // cut the subtree rooted at this entry out of the tree, and meld it back in with the root
+        Entry previous = entry.previous;
+        if (previous.child == entry) {
+            previous.child = entry.sibling;
+        } else {
+            previous.sibling = entry.sibling;
+        }
+        if (entry.sibling != null) {
+            entry.sibling.previous = previous;
+        }
+        entry.sibling = null;
+        entry.previous = null;
+        root = meld(root, entry);
+    }
+
+    @Override
+    public PathNode removeLowest() {
+        if (root == null) {
+            throw new IllegalStateException("Cannot remove from empty heap");
+        }
+        Entry removed = root;
+        root = mergePairs(removed.child);
+        if (root != null) {
+            root.previous = null;
+        }
+        PathNode result = removed.node;
+        removed.node = null;
+        removed.child = null;
+        if (freeSize == free.length) {
+            free = Arrays.copyOf(free, freeSize << 1);
+        }
+        free[freeSize++] = removed.index;
+        result.heapPosition = -1;
+        size--;
+        return result;
+    }
+
+    /**
+     * Merges two trees, the one with the higher root becomes the first child of the other
+     */
+    private static Entry meld(Entry a, Entry b) {
+        if (b.node.combinedCost < a.node.combinedCost) {
+            Entry tmp = a;
+            a = b;
+            b = tmp;
+        }
+        b.previous = a;
+        b.sibling = a.child;
+        if (a.child != null) {
+            a.child.previous = b;
+        }
+        a.child = b;
+        return a;
+    }
+
+    /**
+     * The standard two pass merge, done iteratively because the list of children can be very long
+     */
+    private Entry mergePairs(Entry first) {
+        if (first == null) {
+            return null;
+        }
+        // first pass, left to right, meld the children in pairs
+        Entry current = first;
+        while (current != null) {
+            Entry a = current;
+            Entry b = a.sibling;
+            if (b == null) {
+                a.sibling = null;
+                a.previous = null;
+                pairs.add(a);
+                break;
+            }
+            current = b.sibling;
+            a.sibling = null;
+            a.previous = null;
+            b.sibling = null;
+            b.previous = null;
+            pairs.add(meld(a, b));
+        }
+        // second pass, right to left, meld each pair into the accumulated result
+        Entry result = pairs.get(pairs.size() - 1);
+        for (int i = pairs.size() - 2; i >= 0; i--) {
+            result = meld(pairs.get(i), result);
+        }
+        pairs.clear();
+        return result;
+    }
+
+    /**
+     * A node in the tree. The first child, the next sibling, and the previous sibling (or the parent, for the first
+     * child).
+     */
+    private static final class Entry {
+
+        private final int index;
+        private PathNode node;
+        private Entry child;
+        private Entry sibling;
+        private Entry previous;
+
+        private Entry(int index) {
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package baritone.pathing.calc.openset;
+
+import baritone.pathing.calc.PathNode;
+
+import java.util.Arrays;
+
+/**
+ * A radix heap implementation of an open set. Every node goes in a bucket by the highest bit where the bits of its
+ * cost differ from the bits of the last removed cost, so insert and decrease-key are constant time, and each node is
+ * only moved to a lower bucket a bounded number of times.
+ * <p>
+ * Costs are compared exactly, by mapping the bits of the double to a long with the same unsigned order, so this
+ * returns nodes in exactly the same order as the other heaps. A radix heap expects every inserted cost to be at least
+ * the last removed one, which isn't true with an inconsistent heuristic, so that case is handled by lowering the
+ * last removed cost and merging the buckets that it invalidates.
+ * <p>
+ * {@link PathNode#heapPosition} is the index of the node in its bucket. Which bucket that is isn't kept anywhere,
+ * since decrease-key has already changed the cost by the time it's called, so {@link #remove} looks for the node at
+ * that index in each bucket instead.
+ */
+public final class RadixHeapOpenSet implements IOpenSet {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Bucket 0 holds nodes with a key equal to {@link #last}, bucket i holds nodes whose highest bit differing from
+     * {@link #last} is bit i - 1
+     */
+    private final PathNode[][] buckets = new PathNode[65][];
+
+    private final int[] bucketSizes = new int[65];
+
+    /**
+     * The key of the most recently removed node, no node in the heap has a lower key than this
+     */
+    private long last;
+
+    private int size;
+
+    public RadixHeapOpenSet() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new PathNode[INITIAL_CAPACITY];
+        }
+        this.last = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void insert(PathNode node) {
+        long key = key(node.combinedCost);
+        if (size == 0) {
+            last = key;
+        } else if (Long.compareUnsigned(key, last) < 0) {
+            lowerLast(key);
+        }
+        add(bucket(key), node);
+        size++;
+    }
+
+    @Override
+    public void update(PathNode node) {
+        remove(node);
+        size--;
+        insert(node);
+    }
+
+    @Override
+    public PathNode removeLowest() {
+        if (size == 0) {
+            throw new IllegalStateException("Cannot remove from empty heap");
+        }
+        if (bucketSizes[0] == 0) {
+            int i = 1;
+            while (bucketSizes[i] == 0) {
+                i++;
+            }
+            // the lowest node in the lowest nonempty bucket becomes the new last, and everything else in that bucket
+            // now differs from it in a lower bit, so it moves to a lower bucket
+            PathNode[] bucket = buckets[i];
+            int count = bucketSizes[i];
+            long min = key(bucket[0].combinedCost);
+            for (int j = 1; j < count; j++) {
+                long key = key(bucket[j].combinedCost);
+                if (Long.compareUnsigned(key, min) < 0) {
+                    min = key;
+                }
+            }
+            last = min;
+            bucketSizes[i] = 0;
+            for (int j = 0; j < count; j++) {
+                PathNode node = bucket[j];
+                bucket[j] = null;
+                add(bucket(key(node.combinedCost)), node);
+            }
+        }
+        PathNode result = buckets[0][--bucketSizes[0]];
+        buckets[0][bucketSizes[0]] = null;
+        result.heapPosition = -1;
+        size--;
+        return result;
+    }
+
+    /**
+     * Lowers {@link #last} to a key below it. Nodes in bucket i for i above the highest bit where the old and new last
+     * differ are still in the right bucket, and all the ones below it belong in that bucket now, which is empty.
+     */
+    private void lowerLast(long key) {
+        int target = bucket(key);
+        for (int i = 0; i < target; i++) {
+            PathNode[] bucket = buckets[i];
+            int count = bucketSizes[i];
+            for (int j = 0; j < count; j++) {
+                add(target, bucket[j]);
+                bucket[j] = null;
+            }
+            bucketSizes[i] = 0;
+        }
+        last = key;
+    }
+
+    private void add(int bucketIndex, PathNode node) {
+        PathNode[] bucket = buckets[bucketIndex];
+        int index = bucketSizes[bucketIndex]++;
+        if (index == bucket.length) {
+            bucket = buckets[bucketIndex] = Arrays.copyOf(bucket, bucket.length << 1);
+        }
+        bucket[index] = node;
+        node.heapPosition = index;
+    }
+
+    private void remove(PathNode node) {
+        int index = node.heapPosition;
+        int bucketIndex = 0;
+        while (index >= bucketSizes[bucketIndex] || buckets[bucketIndex][index] != node) {
+            bucketIndex++;
+        }
+        // swap the last node of the bucket into this one's place
+        PathNode[] bucket = buckets[bucketIndex];
+        int lastIndex = --bucketSizes[bucketIndex];
+        PathNode moved = bucket[lastIndex];
+        bucket[index] = moved;
+        moved.heapPosition = index;
+        bucket[lastIndex] = null;
+        node.heapPosition = -1;
+    }
+
+    private int bucket(long key) {
+        return 64 - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    /**
+     * Maps a double to a long such that comparing the longs as unsigned gives the same order as comparing the doubles
+     */
+    static long key(double cost) {
+        long bits = Double.doubleToLongBits(cost);
+        // negative doubles sort backwards, so flip everything but the sign bit, then flip the sign bit for all of them
+        return (bits ^ ((bits >> 63) & Long.MAX_VALUE)) ^ Long.MIN_VALUE;
+    }
+}
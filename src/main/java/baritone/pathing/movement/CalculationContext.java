@@ -48,7 +48,7 @@ import static baritone.api.pathing.movement.ActionCosts.COST_INF;
  * @author Brady
  * @since 8/7/2018
  */
-public class CalculationContext {
+public class CalculationContext implements Cloneable {
 
     private static final ItemStack STACK_BUCKET_WATER = new ItemStack(Items.WATER_BUCKET);
 
@@ -56,7 +56,7 @@ public class CalculationContext {
     public final IBaritone baritone;
     public final Level world;
     public final WorldData worldData;
-    public final BlockStateInterface bsi;
+    public BlockStateInterface bsi; // only ever replaced by forCalculation, on the copy
     public final ToolSet toolSet;
     public final boolean hasWaterBucket;
     public final boolean hasThrowaway;
@@ -83,6 +83,8 @@ public class CalculationContext {
     public double jumpPenalty;
     public final double walkOnWaterOnePenalty;
     public final BetterWorldBorder worldBorder;
+    public final int minY;
+    public final int height;
 
     public final PrecomputedData precomputedData;
 
@@ -91,14 +93,15 @@ public class CalculationContext {
     }
 
     public CalculationContext(IBaritone baritone, boolean forUseOnAnotherThread) {
-        this.precomputedData = new PrecomputedData();
         this.safeForThreadedUse = forUseOnAnotherThread;
         this.baritone = baritone;
         LocalPlayer player = baritone.getPlayerContext().player();
         this.world = baritone.getPlayerContext().world();
         this.worldData = (WorldData) baritone.getPlayerContext().worldData();
-        this.bsi = new BlockStateInterface(baritone.getPlayerContext(), forUseOnAnotherThread);
+        boolean snapshot = forUseOnAnotherThread && Baritone.settings().pathingChunkSnapshots.value && baritone instanceof Baritone;
+        this.bsi = new BlockStateInterface(baritone.getPlayerContext(), forUseOnAnotherThread, snapshot ? ((Baritone) baritone).getChunkSnapshots() : null);
         this.toolSet = new ToolSet(player);
+        this.precomputedData = new PrecomputedData(toolSet);
         this.hasThrowaway = Baritone.settings().allowPlace.value && ((Baritone) baritone).getInventoryBehavior().hasGenericThrowaway();
         this.hasWaterBucket = Baritone.settings().allowWaterBucketFall.value && Inventory.isHotbarSlot(player.getInventory().findSlotMatchingItem(STACK_BUCKET_WATER)) && world.dimension() != Level.NETHER;
         this.canSprint = Baritone.settings().allowSprint.value && player.getFoodData().getFoodLevel() > 6;
@@ -157,6 +160,71 @@ public class CalculationContext {
         // because if some movements are calculated one way and others are calculated another way,
         // then you get a wildly inconsistent path that isn't optimal for either scenario.
         this.worldBorder = new BetterWorldBorder(world.getWorldBorder());
+        this.minY = world.dimensionType().minY();
+        this.height = world.dimensionType().height();
+    }
+
+    /**
+     * A context with no player and no client world behind it, for running the path finder against a world that only
+     * exists in memory or on disk. It's as if the player had an empty hotbar apart from throwaway blocks, a full
+     * hunger bar and no enchantments.
+     * <p>
+     * There's no {@link #baritone}, so paths calculated with this can be inspected but not executed.
+     *
+     * @param bsi Where to get blocks from, see {@link BlockStateInterface#BlockStateInterface(baritone.utils.IBlockSource, int, int, BetterWorldBorder)}
+     */
+    public CalculationContext(BlockStateInterface bsi) {
+        this.safeForThreadedUse = true;
+        this.baritone = null;
+        this.world = null;
+        this.worldData = null;
+        this.bsi = bsi;
+        this.toolSet = new ToolSet(null);
+        this.precomputedData = new PrecomputedData(toolSet);
+        this.hasThrowaway = Baritone.settings().allowPlace.value;
+        this.hasWaterBucket = false;
+        this.canSprint = Baritone.settings().allowSprint.value;
+        this.placeBlockCost = Baritone.settings().blockPlacementPenalty.value;
+        this.allowBreak = Baritone.settings().allowBreak.value;
+        this.allowBreakAnyway = new ArrayList<>(Baritone.settings().allowBreakAnyway.value);
+        this.allowParkour = Baritone.settings().allowParkour.value;
+        this.allowParkourPlace = Baritone.settings().allowParkourPlace.value;
+        this.allowJumpAtBuildLimit = Baritone.settings().allowJumpAtBuildLimit.value;
+        this.allowParkourAscend = Baritone.settings().allowParkourAscend.value;
+        this.assumeWalkOnWater = Baritone.settings().assumeWalkOnWater.value;
+        this.allowFallIntoLava = false;
+        this.frostWalker = 0;
+        this.allowDiagonalDescend = Baritone.settings().allowDiagonalDescend.value;
+        this.allowDiagonalAscend = Baritone.settings().allowDiagonalAscend.value;
+        this.allowDownward = Baritone.settings().allowDownward.value;
+        this.minFallHeight = 3;
+        this.maxFallHeightNoWater = Baritone.settings().maxFallHeightNoWater.value;
+        this.maxFallHeightBucket = Baritone.settings().maxFallHeightBucket.value;
+        this.waterWalkSpeed = ActionCosts.WALK_ONE_BLOCK_COST; // same as the water speed multiplier of 1 above
+        this.breakBlockAdditionalCost = Baritone.settings().blockBreakAdditionalPenalty.value;
+        this.backtrackCostFavoringCoefficient = Baritone.settings().backtrackCostFavoringCoefficient.value;
+        this.jumpPenalty = Baritone.settings().jumpPenalty.value;
+        this.walkOnWaterOnePenalty = Baritone.settings().walkOnWaterOnePenalty.value;
+        this.worldBorder = bsi.worldBorder;
+        this.minY = bsi.getMinY();
+        this.height = bsi.getHeight();
+    }
+
+    /**
+     * A copy of this context, including whatever a subclass adds, except that it reads blocks through a
+     * {@link BlockStateInterface#forCalculation() view of its own}. A path calculation keeps per-calculation state in
+     * there, which must not be visible to anyone else using this context at the same time.
+     *
+     * @return The copy
+     */
+    public CalculationContext forCalculation() {
+        try {
+            CalculationContext copy = (CalculationContext) clone();
+            copy.bsi = bsi.forCalculation();
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public final IBaritone getBaritone() {
@@ -66,7 +66,7 @@ public abstract class Movement implements IMovement, MovementHelper {
 
     protected Movement(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest, BetterBlockPos[] toBreak, BetterBlockPos toPlace) {
         this.baritone = baritone;
-        this.ctx = baritone.getPlayerContext();
+        this.ctx = baritone == null ? null : baritone.getPlayerContext(); // null for paths calculated without a client, which can't be executed
         this.src = src;
         this.dest = dest;
         this.positionsToBreak = toBreak;
@@ -62,15 +62,34 @@ import static baritone.pathing.precompute.Ternary.*;
 public interface MovementHelper extends ActionCosts, Helper {
 
     static boolean avoidBreaking(BlockStateInterface bsi, int x, int y, int z, BlockState state) {
-        if (!bsi.worldBorder.canPlaceAt(x, z)) {
-            return true;
-        }
+        return avoidBreakingBlockState(state) || avoidBreakingPosition(bsi, x, y, z);
+    }
+
+    static boolean avoidBreaking(CalculationContext context, int x, int y, int z, BlockState state) {
+        return context.precomputedData.avoidBreaking(context.bsi, x, y, z, state);
+    }
+
+    /**
+     * The part of {@link #avoidBreaking(BlockStateInterface, int, int, int, BlockState)} that only depends on the
+     * block itself
+     */
+    static boolean avoidBreakingBlockState(BlockState state) {
         Block b = state.getBlock();
         return Baritone.settings().blocksToDisallowBreaking.value.contains(b)
                 || b == Blocks.ICE // ice becomes water, and water can mess up the path
-                || b instanceof InfestedBlock // obvious reasons
-                // call context.get directly with x,y,z. no need to make 5 new BlockPos for no reason
-                || avoidAdjacentBreaking(bsi, x, y + 1, z, true)
+                || b instanceof InfestedBlock; // obvious reasons
+    }
+
+    /**
+     * The part of {@link #avoidBreaking(BlockStateInterface, int, int, int, BlockState)} that depends on where the
+     * block is
+     */
+    static boolean avoidBreakingPosition(BlockStateInterface bsi, int x, int y, int z) {
+        if (!bsi.worldBorder.canPlaceAt(x, z)) {
+            return true;
+        }
+        // call context.get directly with x,y,z. no need to make 5 new BlockPos for no reason
+        return avoidAdjacentBreaking(bsi, x, y + 1, z, true)
                 || avoidAdjacentBreaking(bsi, x + 1, y, z, false)
                 || avoidAdjacentBreaking(bsi, x - 1, y, z, false)
                 || avoidAdjacentBreaking(bsi, x, y, z + 1, false)
@@ -317,6 +336,28 @@ public interface MovementHelper extends ActionCosts, Helper {
         return state.canBeReplaced();
     }
 
+    static boolean isReplaceable(CalculationContext context, int x, int y, int z, BlockState state) {
+        return context.precomputedData.isReplaceable(context.bsi, x, y, z, state);
+    }
+
+    /**
+     * @return Whether {@link #isReplaceable(int, int, int, BlockState, BlockStateInterface)} is the same for every
+     * position, {@link Ternary#MAYBE} if it isn't
+     */
+    static Ternary isReplaceableBlockState(BlockState state) {
+        Block block = state.getBlock();
+        if (block instanceof AirBlock) {
+            return YES;
+        }
+        if (block instanceof SnowLayerBlock) {
+            return MAYBE;
+        }
+        if (block == Blocks.LARGE_FERN || block == Blocks.TALL_GRASS) {
+            return YES;
+        }
+        return state.canBeReplaced() ? YES : NO;
+    }
+
     @Deprecated
     static boolean isReplacable(int x, int y, int z, BlockState state, BlockStateInterface bsi) {
         return isReplaceable(x, y, z, state, bsi);
@@ -380,6 +421,10 @@ public interface MovementHelper extends ActionCosts, Helper {
                 || block == Blocks.BUBBLE_COLUMN;
     }
 
+    static boolean avoidWalkingInto(CalculationContext context, BlockState state) {
+        return context.precomputedData.avoidWalkingInto(state);
+    }
+
     /**
      * Can I walk on this block without anything weird happening like me falling
      * through? Includes water because we know that we automatically jump on
@@ -593,17 +638,17 @@ public interface MovementHelper extends ActionCosts, Helper {
     static double getMiningDurationTicks(CalculationContext context, int x, int y, int z, BlockState state, boolean includeFalling) {
         Block block = state.getBlock();
         if (!canWalkThrough(context, x, y, z, state)) {
-            if (!state.getFluidState().isEmpty()) {
+            if (isLiquid(context, state)) {
                 return COST_INF;
             }
             double mult = context.breakCostMultiplierAt(x, y, z, state);
             if (mult >= COST_INF) {
                 return COST_INF;
             }
-            if (avoidBreaking(context.bsi, x, y, z, state)) {
+            if (avoidBreaking(context, x, y, z, state)) {
                 return COST_INF;
             }
-            double strVsBlock = context.toolSet.getStrVsBlock(state);
+            double strVsBlock = context.precomputedData.getStrVsBlock(state);
             if (strVsBlock <= 0) {
                 return COST_INF;
             }
@@ -682,11 +727,19 @@ public interface MovementHelper extends ActionCosts, Helper {
         return isWater(BlockStateInterface.get(ctx, bp));
     }
 
+    static boolean isWater(CalculationContext context, BlockState state) {
+        return context.precomputedData.isWater(state);
+    }
+
     static boolean isLava(BlockState state) {
         Fluid f = state.getFluidState().getType();
         return f == Fluids.LAVA || f == Fluids.FLOWING_LAVA;
     }
 
+    static boolean isLava(CalculationContext context, BlockState state) {
+        return context.precomputedData.isLava(state);
+    }
+
     /**
      * Returns whether or not the specified pos has a liquid
      *
@@ -702,6 +755,10 @@ public interface MovementHelper extends ActionCosts, Helper {
         return !blockState.getFluidState().isEmpty();
     }
 
+    static boolean isLiquid(CalculationContext context, BlockState blockState) {
+        return context.precomputedData.isLiquid(blockState);
+    }
+
     static boolean possiblyFlowing(BlockState state) {
         FluidState fluidState = state.getFluidState();
         return fluidState.getType() instanceof FlowingFluid
@@ -72,7 +72,7 @@ public class MovementAscend extends Movement {
             if (additionalPlacementCost >= COST_INF) {
                 return COST_INF;
             }
-            if (!MovementHelper.isReplaceable(destX, y, destZ, toPlace, context.bsi)) {
+            if (!MovementHelper.isReplaceable(context, destX, y, destZ, toPlace)) {
                 return COST_INF;
             }
             boolean foundPlaceOption = false;
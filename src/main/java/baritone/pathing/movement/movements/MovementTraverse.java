@@ -85,7 +85,7 @@ public class MovementTraverse extends Movement {
         if (frostWalker || MovementHelper.canWalkOn(context, destX, y - 1, destZ, destOn)) { //this is a walk, not a bridge
             double WC = WALK_ONE_BLOCK_COST;
             boolean water = false;
-            if (MovementHelper.isWater(pb0) || MovementHelper.isWater(pb1)) {
+            if (MovementHelper.isWater(context, pb0) || MovementHelper.isWater(context, pb1)) {
                 WC = context.waterWalkSpeed;
                 water = true;
             } else {
@@ -123,9 +123,9 @@ public class MovementTraverse extends Movement {
             if (srcDownBlock == Blocks.LADDER || srcDownBlock == Blocks.VINE) {
                 return COST_INF;
             }
-            if (MovementHelper.isReplaceable(destX, y - 1, destZ, destOn, context.bsi)) {
-                boolean throughWater = MovementHelper.isWater(pb0) || MovementHelper.isWater(pb1);
-                if (MovementHelper.isWater(destOn) && throughWater) {
+            if (MovementHelper.isReplaceable(context, destX, y - 1, destZ, destOn)) {
+                boolean throughWater = MovementHelper.isWater(context, pb0) || MovementHelper.isWater(context, pb1);
+                if (MovementHelper.isWater(context, destOn) && throughWater) {
                     // this happens when assume walk on water is true and this is a traverse in water, which isn't allowed
                     return COST_INF;
                 }
@@ -183,10 +183,10 @@ public class MovementTraverse extends Movement {
                 return state;
             }
             // and if it's fine to walk into the blocks in front
-            if (MovementHelper.avoidWalkingInto(pb0)) {
+            if (MovementHelper.avoidWalkingInto(context, pb0)) {
                 return state;
             }
-            if (MovementHelper.avoidWalkingInto(pb1)) {
+            if (MovementHelper.avoidWalkingInto(context, pb1)) {
                 return state;
             }
             // and we aren't already pressed up against the block
@@ -66,10 +66,18 @@ public class PathExecutor implements IPathExecutor, Helper {
     private Double currentMovementOriginalCostEstimate;
     private Integer costEstimateIndex;
     private boolean failed;
+    private int invalidatedMovement = -1;
     private boolean recalcBP = true;
     private HashSet<BlockPos> toBreak = new HashSet<>();
     private HashSet<BlockPos> toPlace = new HashSet<>();
     private HashSet<BlockPos> toWalkInto = new HashSet<>();
+    private final List<BlockPos> changedBlocks = new ArrayList<>();
+
+    /**
+     * The bounds of every position on the path, with the same margin as {@link #isNearAny}. Block changes outside of
+     * these can't make any movement impossible, so they aren't kept in {@link #changedBlocks}.
+     */
+    private final int minX, minY, minZ, maxX, maxY, maxZ;
 
     private final PathingBehavior behavior;
     private final IPlayerContext ctx;
@@ -81,6 +89,22 @@ public class PathExecutor implements IPathExecutor, Helper {
         this.ctx = behavior.ctx;
         this.path = path;
         this.pathPosition = 0;
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (BetterBlockPos pos : path.positions()) {
+            minX = Math.min(minX, pos.x);
+            minY = Math.min(minY, pos.y);
+            minZ = Math.min(minZ, pos.z);
+            maxX = Math.max(maxX, pos.x);
+            maxY = Math.max(maxY, pos.y);
+            maxZ = Math.max(maxZ, pos.z);
+        }
+        this.minX = minX - 1;
+        this.minY = minY - 1;
+        this.minZ = minZ - 1;
+        this.maxX = maxX + 1;
+        this.maxY = maxY + 2;
+        this.maxZ = maxZ + 1;
     }
 
     /**
@@ -191,6 +215,15 @@ public class PathExecutor implements IPathExecutor, Helper {
             }
         }
         boolean canCancel = movement.safeToCancel();
+        if (!changedBlocks.isEmpty() && canCancel) {
+            int impossible = lastMovementMadeImpossible(behavior.secretInternalGetCalculationContext());
+            if (impossible != -1) {
+                logDebug("A block change has made movement " + impossible + " impossible. Cancelling.");
+                invalidatedMovement = impossible;
+                cancel();
+                return true;
+            }
+        }
         if (costEstimateIndex == null || costEstimateIndex != pathPosition) {
             costEstimateIndex = pathPosition;
             // do this only once, when the movement starts, and deliberately get the cost as cached when this path was calculated, not the cost as it is right now
@@ -198,6 +231,7 @@ public class PathExecutor implements IPathExecutor, Helper {
             for (int i = 1; i < Baritone.settings().costVerificationLookahead.value && pathPosition + i < path.length() - 1; i++) {
                 if (((Movement) path.movements().get(pathPosition + i)).calculateCost(behavior.secretInternalGetCalculationContext()) >= ActionCosts.COST_INF && canCancel) {
                     logDebug("Something has changed in the world and a future movement has become impossible. Cancelling.");
+                    invalidatedMovement = pathPosition + i;
                     cancel();
                     return true;
                 }
@@ -206,6 +240,7 @@ public class PathExecutor implements IPathExecutor, Helper {
         double currentCost = movement.recalculateCost(behavior.secretInternalGetCalculationContext());
         if (currentCost >= ActionCosts.COST_INF && canCancel) {
             logDebug("Something has changed in the world and this movement has become impossible. Cancelling.");
+            invalidatedMovement = pathPosition;
             cancel();
             return true;
         }
@@ -252,6 +287,62 @@ public class PathExecutor implements IPathExecutor, Helper {
         return canCancel; // movement is in progress, but if it reports cancellable, PathingBehavior is good to cut onto the next path
     }
 
+    /**
+     * Called when blocks change in the world, so that the movements near them can be checked on the next tick
+     *
+     * @param positions The positions of the blocks that changed
+     */
+    public void onBlockChange(List<BlockPos> positions) {
+        if (finished()) {
+            return;
+        }
+        for (BlockPos pos : positions) {
+            if (pos.getX() >= minX && pos.getX() <= maxX && pos.getY() >= minY && pos.getY() <= maxY && pos.getZ() >= minZ && pos.getZ() <= maxZ) {
+                changedBlocks.add(pos);
+            }
+        }
+    }
+
+    /**
+     * Recalculates the cost of every upcoming movement near a block that changed since this was last called, instead of
+     * waiting for the lookahead in {@link #onTick()} to get there
+     *
+     * @return The index of the last movement that is now impossible, or -1 if there is none
+     */
+    private int lastMovementMadeImpossible(CalculationContext context) {
+        int last = -1;
+        for (int i = pathPosition + 1; i < path.length() - 1; i++) {
+            Movement m = (Movement) path.movements().get(i);
+            if (!isNearAny(m, changedBlocks)) {
+                continue;
+            }
+            // calculateCost not recalculateCost, for the same reason as the lookahead
+            if (m.calculateCost(context) >= ActionCosts.COST_INF) {
+                last = i;
+            }
+        }
+        changedBlocks.clear();
+        return last;
+    }
+
+    private static boolean isNearAny(Movement movement, List<BlockPos> positions) {
+        BetterBlockPos src = movement.getSrc();
+        BetterBlockPos dest = movement.getDest();
+        // one block of margin to the sides and below (the floor), two above (the head)
+        int minX = Math.min(src.x, dest.x) - 1;
+        int maxX = Math.max(src.x, dest.x) + 1;
+        int minY = Math.min(src.y, dest.y) - 1;
+        int maxY = Math.max(src.y, dest.y) + 2;
+        int minZ = Math.min(src.z, dest.z) - 1;
+        int maxZ = Math.max(src.z, dest.z) + 1;
+        for (BlockPos pos : positions) {
+            if (pos.getX() >= minX && pos.getX() <= maxX && pos.getY() >= minY && pos.getY() <= maxY && pos.getZ() >= minZ && pos.getZ() <= maxZ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private Tuple<Double, BlockPos> closestPathPos(IPath path) {
         double best = -1;
         BlockPos bestPos = null;
@@ -649,6 +740,14 @@ public class PathExecutor implements IPathExecutor, Helper {
         return failed;
     }
 
+    /**
+     * @return The index of the movement that a change in the world made impossible, causing this executor to fail, or
+     * -1 if it didn't fail for that reason
+     */
+    public int getInvalidatedMovement() {
+        return invalidatedMovement;
+    }
+
     public boolean finished() {
         return pathPosition >= path.length();
     }
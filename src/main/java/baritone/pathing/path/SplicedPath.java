@@ -69,6 +69,14 @@ public class SplicedPath extends PathBase {
     }
 
     public static Optional<SplicedPath> trySplice(IPath first, IPath second, boolean allowOverlapCutoff) {
+        return trySplice(first, second, allowOverlapCutoff, first == null ? null : first.getGoal());
+    }
+
+    /**
+     * Same as {@link #trySplice(IPath, IPath, boolean)}, but the result has the specified goal instead of the goal of
+     * the first path
+     */
+    public static Optional<SplicedPath> trySplice(IPath first, IPath second, boolean allowOverlapCutoff, Goal goal) {
         if (second == null || first == null) {
             return Optional.empty();
         }
@@ -101,6 +109,6 @@ public class SplicedPath extends PathBase {
 
         positions.addAll(second.positions().subList(positionInSecond + 1, second.length()));
         movements.addAll(second.movements().subList(positionInSecond, second.length() - 1));
-        return Optional.of(new SplicedPath(positions, movements, first.getNumNodesConsidered() + second.getNumNodesConsidered(), first.getGoal()));
+        return Optional.of(new SplicedPath(positions, movements, first.getNumNodesConsidered() + second.getNumNodesConsidered(), goal));
     }
 }
@@ -17,17 +17,44 @@
 
 package baritone.pathing.precompute;
 
+import baritone.Baritone;
 import baritone.pathing.movement.MovementHelper;
 import baritone.utils.BlockStateInterface;
+import baritone.utils.ToolSet;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
 import static baritone.pathing.precompute.Ternary.MAYBE;
 import static baritone.pathing.precompute.Ternary.YES;
 
 public class PrecomputedData {
 
-    private final int[] data = new int[Block.BLOCK_STATE_REGISTRY.size()];
+    /**
+     * The flags only depend on the block state and a handful of settings, so one table is shared by every context
+     * until one of those settings changes
+     */
+    private static volatile Table shared;
+
+    /**
+     * The mining speeds only depend on the hotbar and a few settings, so they're shared the same way, by
+     * {@link ToolSet#strVsBlockKey()}
+     */
+    private static volatile StrVsBlockTable sharedStrVsBlock;
+
+    private final int[] data;
+
+    /**
+     * How fast each block state can be mined with {@link #toolSet}, NaN if it hasn't been looked up yet. Shared with
+     * every other context that has the same tools.
+     */
+    private final float[] strVsBlock;
+
+    private final ToolSet toolSet;
 
     private static final int COMPLETED_MASK = 1 << 0;
     private static final int CAN_WALK_ON_MASK = 1 << 1;
@@ -36,8 +63,118 @@ public class PrecomputedData {
     private static final int CAN_WALK_THROUGH_SPECIAL_MASK = 1 << 4;
     private static final int FULLY_PASSABLE_MASK = 1 << 5;
     private static final int FULLY_PASSABLE_SPECIAL_MASK = 1 << 6;
+    private static final int REPLACEABLE_MASK = 1 << 7;
+    private static final int REPLACEABLE_SPECIAL_MASK = 1 << 8;
+    private static final int AVOID_WALKING_INTO_MASK = 1 << 9;
+    private static final int AVOID_BREAKING_MASK = 1 << 10;
+    private static final int LIQUID_MASK = 1 << 11;
+    private static final int WATER_MASK = 1 << 12;
+    private static final int LAVA_MASK = 1 << 13;
+
+    /**
+     * @param toolSet The tools to look up mining speeds with
+     */
+    public PrecomputedData(ToolSet toolSet) {
+        this.data = sharedTable().data;
+        this.strVsBlock = sharedStrVsBlockTable(toolSet.strVsBlockKey()).strVsBlock;
+        this.toolSet = toolSet;
+    }
+
+    /**
+     * Makes sure the shared table for the current settings exists and is being filled in, so that the first path
+     * calculation doesn't have to do it all itself
+     */
+    public static void prepare() {
+        sharedTable();
+    }
+
+    private static Table sharedTable() {
+        List<Object> key = currentKey();
+        Table table = shared;
+        if (table == null || !table.key.equals(key)) {
+            synchronized (PrecomputedData.class) {
+                table = shared;
+                if (table == null || !table.key.equals(key)) {
+                    table = new Table(key);
+                    shared = table;
+                    Baritone.getExecutor().execute(table::fillAll);
+                }
+            }
+        }
+        return table;
+    }
+
+    private static StrVsBlockTable sharedStrVsBlockTable(List<Object> key) {
+        StrVsBlockTable table = sharedStrVsBlock;
+        if (table == null || !table.key.equals(key)) {
+            synchronized (PrecomputedData.class) {
+                table = sharedStrVsBlock;
+                if (table == null || !table.key.equals(key)) {
+                    table = new StrVsBlockTable(key);
+                    sharedStrVsBlock = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * @return Every setting that the flags depend on, anything that changes one of them needs a new table
+     */
+    private static List<Object> currentKey() {
+        return Arrays.asList(
+                new ArrayList<>(Baritone.settings().blocksToAvoid.value),
+                new ArrayList<>(Baritone.settings().blocksToDisallowBreaking.value),
+                Baritone.settings().allowVines.value,
+                Baritone.settings().assumeWalkOnLava.value,
+                Baritone.settings().allowWalkOnBottomSlab.value
+        );
+    }
+
+    private static final class Table {
+
+        final List<Object> key;
+        final int[] data = new int[Block.BLOCK_STATE_REGISTRY.size()];
+
+        Table(List<Object> key) {
+            this.key = key;
+        }
+
+        void fillAll() {
+            IntStream.range(0, data.length).parallel().forEach(id -> {
+                if ((data[id] & COMPLETED_MASK) != 0) {
+                    return;
+                }
+                BlockState state = Block.BLOCK_STATE_REGISTRY.byId(id);
+                if (state == null) {
+                    return;
+                }
+                try {
+                    fillData(data, id, state);
+                } catch (RuntimeException e) {
+                    // some modded block that can't be asked about without a world, leave it to be filled in when
+                    // it's actually walked past, the same as before there was a warm up
+                }
+            });
+        }
+    }
+
+    private static final class StrVsBlockTable {
+
+        final List<Object> key;
+
+        /**
+         * NaN until looked up, filled in lazily since most block states are never mined
+         */
+        final float[] strVsBlock = new float[Block.BLOCK_STATE_REGISTRY.size()];
+
+        StrVsBlockTable(List<Object> key) {
+            this.key = key;
+            Arrays.fill(strVsBlock, Float.NaN);
+        }
+    }
 
-    private int fillData(int id, BlockState state) {
+    private static int fillData(int[] data, int id, BlockState state) {
         int blockData = 0;
 
         Ternary canWalkOnState = MovementHelper.canWalkOnBlockState(state);
@@ -64,19 +201,57 @@ public class PrecomputedData {
             blockData |= FULLY_PASSABLE_SPECIAL_MASK;
         }
 
+        Ternary replaceableState = MovementHelper.isReplaceableBlockState(state);
+        if (replaceableState == YES) {
+            blockData |= REPLACEABLE_MASK;
+        }
+        if (replaceableState == MAYBE) {
+            blockData |= REPLACEABLE_SPECIAL_MASK;
+        }
+
+        if (MovementHelper.avoidWalkingInto(state)) {
+            blockData |= AVOID_WALKING_INTO_MASK;
+        }
+        if (MovementHelper.avoidBreakingBlockState(state)) {
+            blockData |= AVOID_BREAKING_MASK;
+        }
+        if (MovementHelper.isLiquid(state)) {
+            blockData |= LIQUID_MASK;
+        }
+        if (MovementHelper.isWater(state)) {
+            blockData |= WATER_MASK;
+        }
+        if (MovementHelper.isLava(state)) {
+            blockData |= LAVA_MASK;
+        }
+
         blockData |= COMPLETED_MASK;
 
-        data[id] = blockData; // in theory, this is thread "safe" because every thread should compute the exact same int to write?
+        // this is thread safe: int writes are atomic, and every thread (including the warm up) computes the exact same int
+        // for the same table, since a change to any setting that goes into it makes a new table instead
+        data[id] = blockData;
         return blockData;
     }
 
-    public boolean canWalkOn(BlockStateInterface bsi, int x, int y, int z, BlockState state) {
-        int id = Block.BLOCK_STATE_REGISTRY.getId(state);
+    private int getData(BlockState state) {
+        return getData(Block.BLOCK_STATE_REGISTRY.getId(state), state);
+    }
+
+    private int getData(BlockStateInterface bsi, int x, int y, int z, BlockState state) {
+        return getData(bsi.getStateId(x, y, z, state), state);
+    }
+
+    private int getData(int id, BlockState state) {
         int blockData = data[id];
 
         if ((blockData & COMPLETED_MASK) == 0) { // we need to fill in the data
-            blockData = fillData(id, state);
+            blockData = fillData(data, id, state);
         }
+        return blockData;
+    }
+
+    public boolean canWalkOn(BlockStateInterface bsi, int x, int y, int z, BlockState state) {
+        int blockData = getData(bsi, x, y, z, state);
 
         if ((blockData & CAN_WALK_ON_SPECIAL_MASK) != 0) {
             return MovementHelper.canWalkOnPosition(bsi, x, y, z, state);
@@ -86,12 +261,7 @@ public class PrecomputedData {
     }
 
     public boolean canWalkThrough(BlockStateInterface bsi, int x, int y, int z, BlockState state) {
-        int id = Block.BLOCK_STATE_REGISTRY.getId(state);
-        int blockData = data[id];
-
-        if ((blockData & COMPLETED_MASK) == 0) { // we need to fill in the data
-            blockData = fillData(id, state);
-        }
+        int blockData = getData(bsi, x, y, z, state);
 
         if ((blockData & CAN_WALK_THROUGH_SPECIAL_MASK) != 0) {
             return MovementHelper.canWalkThroughPosition(bsi, x, y, z, state);
@@ -101,12 +271,7 @@ public class PrecomputedData {
     }
 
     public boolean fullyPassable(BlockStateInterface bsi, int x, int y, int z, BlockState state) {
-        int id = Block.BLOCK_STATE_REGISTRY.getId(state);
-        int blockData = data[id];
-
-        if ((blockData & COMPLETED_MASK) == 0) { // we need to fill in the data
-            blockData = fillData(id, state);
-        }
+        int blockData = getData(bsi, x, y, z, state);
 
         if ((blockData & FULLY_PASSABLE_SPECIAL_MASK) != 0) {
             return MovementHelper.fullyPassablePosition(bsi, x, y, z, state);
@@ -114,4 +279,51 @@ public class PrecomputedData {
             return (blockData & FULLY_PASSABLE_MASK) != 0;
         }
     }
+
+    public boolean isReplaceable(BlockStateInterface bsi, int x, int y, int z, BlockState state) {
+        int blockData = getData(bsi, x, y, z, state);
+
+        if ((blockData & REPLACEABLE_SPECIAL_MASK) != 0) {
+            return MovementHelper.isReplaceable(x, y, z, state, bsi);
+        } else {
+            return (blockData & REPLACEABLE_MASK) != 0;
+        }
+    }
+
+    public boolean avoidBreaking(BlockStateInterface bsi, int x, int y, int z, BlockState state) {
+        if ((getData(bsi, x, y, z, state) & AVOID_BREAKING_MASK) != 0) {
+            return true;
+        }
+        // the rest depends on the world border and the neighbors, so it can't be precomputed
+        return MovementHelper.avoidBreakingPosition(bsi, x, y, z);
+    }
+
+    public boolean avoidWalkingInto(BlockState state) {
+        return (getData(state) & AVOID_WALKING_INTO_MASK) != 0;
+    }
+
+    public boolean isLiquid(BlockState state) {
+        return (getData(state) & LIQUID_MASK) != 0;
+    }
+
+    public boolean isWater(BlockState state) {
+        return (getData(state) & WATER_MASK) != 0;
+    }
+
+    public boolean isLava(BlockState state) {
+        return (getData(state) & LAVA_MASK) != 0;
+    }
+
+    /**
+     * @see ToolSet#getStrVsBlock(BlockState)
+     */
+    public double getStrVsBlock(BlockState state) {
+        int id = Block.BLOCK_STATE_REGISTRY.getId(state);
+        float str = strVsBlock[id];
+        if (Float.isNaN(str)) {
+            str = (float) toolSet.getStrVsBlock(state);
+            strVsBlock[id] = str; // same as data, every thread and every context with this table would write the same value
+        }
+        return str;
+    }
 }
@@ -910,6 +910,11 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
             return this.y * 100 + super.heuristic(x, y, z);
         }
 
+        @Override
+        public double getHeuristicOffset() {
+            return this.y * 100;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (!super.equals(o)) {
@@ -953,6 +958,11 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
             return this.y * 100 + super.heuristic(x, y, z);
         }
 
+        @Override
+        public double getHeuristicOffset() {
+            return this.y * 100;
+        }
+
         @Override
         public int hashCode() {
             return super.hashCode() * 1910811835;
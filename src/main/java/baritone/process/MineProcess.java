@@ -30,6 +30,7 @@ import baritone.pathing.movement.CalculationContext;
 import baritone.pathing.movement.MovementHelper;
 import baritone.utils.BaritoneProcessHelper;
 import baritone.utils.BlockStateInterface;
+import baritone.utils.CpuBudget;
 import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.entity.Entity;
@@ -106,7 +107,7 @@ public final class MineProcess extends BaritoneProcessHelper implements IMinePro
         List<BlockPos> curr = new ArrayList<>(knownOreLocations);
         if (mineGoalUpdateInterval != 0 && tickCount++ % mineGoalUpdateInterval == 0) { // big brain
             CalculationContext context = new CalculationContext(baritone, true);
-            Baritone.getExecutor().execute(() -> rescan(curr, context));
+            Baritone.getExecutor().execute(() -> CpuBudget.run(() -> rescan(curr, context)));
         }
         if (Baritone.settings().legitMine.value) {
             if (!addNearby()) {
@@ -318,6 +319,11 @@ public final class MineProcess extends BaritoneProcessHelper implements IMinePro
             return GoalBlock.calculate(xDiff, yDiff < -1 ? yDiff + 2 : yDiff == -1 ? 0 : yDiff, zDiff);
         }
 
+        @Override
+        public int getColumnMinY() {
+            return y - 2;
+        }
+
         @Override
         public boolean equals(Object o) {
             return super.equals(o);
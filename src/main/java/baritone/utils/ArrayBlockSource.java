@@ -0,0 +1,108 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils;
+
+import baritone.utils.pathing.BetterWorldBorder;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.Arrays;
+
+/**
+ * A box of blocks held in a plain array, for building small synthetic worlds to run the path finder against.
+ * Everything outside of the box is unloaded air.
+ */
+public final class ArrayBlockSource implements IBlockSource {
+
+    private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+
+    /**
+     * Indexed by {@code ((x * sizeZ) + z) * sizeY + y}, so that each column is contiguous
+     */
+    private final BlockState[] blocks;
+
+    public ArrayBlockSource(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ) {
+        if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.blocks = new BlockState[Math.multiplyExact(Math.multiplyExact(sizeX, sizeY), sizeZ)];
+        Arrays.fill(blocks, AIR);
+    }
+
+    @Override
+    public BlockState get(int x, int y, int z) {
+        int index = index(x, y, z);
+        return index < 0 ? AIR : blocks[index];
+    }
+
+    @Override
+    public boolean isLoaded(int x, int z) {
+        return x >= minX && x - minX < sizeX && z >= minZ && z - minZ < sizeZ;
+    }
+
+    public void set(int x, int y, int z, BlockState state) {
+        int index = index(x, y, z);
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Position " + x + "," + y + "," + z + " is outside of this block source");
+        }
+        blocks[index] = state;
+    }
+
+    /**
+     * Sets every block in the box between the two corners, inclusive
+     */
+    public void fill(int x1, int y1, int z1, int x2, int y2, int z2, BlockState state) {
+        for (int x = Math.min(x1, x2); x <= Math.max(x1, x2); x++) {
+            for (int z = Math.min(z1, z2); z <= Math.max(z1, z2); z++) {
+                for (int y = Math.min(y1, y2); y <= Math.max(y1, y2); y++) {
+                    set(x, y, z, state);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return A {@link BlockStateInterface} that reads from this box, with a world border around it
+     */
+    public BlockStateInterface createBlockStateInterface() {
+        return new BlockStateInterface(this, minY, sizeY, new BetterWorldBorder(minX, minX + sizeX, minZ, minZ + sizeZ));
+    }
+
+    private int index(int x, int y, int z) {
+        x -= minX;
+        y -= minY;
+        z -= minZ;
+        if (x < 0 || x >= sizeX || y < 0 || y >= sizeY || z < 0 || z >= sizeZ) {
+            return -1;
+        }
+        return (x * sizeZ + z) * sizeY + y;
+    }
+}
@@ -20,6 +20,7 @@ package baritone.utils;
 import baritone.Baritone;
 import baritone.api.utils.IPlayerContext;
 import baritone.cache.CachedRegion;
+import baritone.cache.ChunkSnapshots;
 import baritone.cache.WorldData;
 import baritone.utils.accessor.IClientChunkProvider;
 import baritone.utils.pathing.BetterWorldBorder;
@@ -32,8 +33,11 @@ import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
 import net.minecraft.world.level.chunk.status.ChunkStatus;
 
+import java.util.Arrays;
+
 /**
  * Wraps get for chuck caching capability
  *
@@ -42,28 +46,86 @@ import net.minecraft.world.level.chunk.status.ChunkStatus;
 public class BlockStateInterface {
 
     private final ClientChunkCache provider;
+    private final IBlockSource source;
     private final WorldData worldData;
     protected final Level world;
+    final int minY;
+    final int height;
     public final BlockPos.MutableBlockPos isPassableBlockPos;
     public final BlockGetter access;
     public final BetterWorldBorder worldBorder;
 
-    private LevelChunk prev = null;
-    private CachedRegion prevCached = null;
+    /**
+     * Read instead of {@link #provider} if not null, see {@link baritone.api.Settings#pathingChunkSnapshots}
+     */
+    private final ChunkSnapshots.Snapshot snapshot;
+
+    /**
+     * Read before anything else if not null, see {@link #materialize}. Only ever set on an instance from
+     * {@link #forCalculation()}, by the thread that owns it.
+     */
+    private MaterializedRegion region;
+
+    // there's great cache locality in block state lookups, generally it's within a few chunks around each movement
+    // so remember the last chunks used, indexed by the low bits of their coordinates, see chunkSlot
+    // then we can skip the mc.world.getChunk lookup, which is a Long2ObjectOpenHashMap.get
+    // a single previous chunk thrashes as soon as a movement crosses a chunk border, this doesn't
+    // see issue #113
+    private final LevelChunk[] chunks = new LevelChunk[CHUNK_RING_SIZE * CHUNK_RING_SIZE];
+    private final ChunkSnapshots.Chunk[] snapshotChunks = new ChunkSnapshots.Chunk[CHUNK_RING_SIZE * CHUNK_RING_SIZE];
+    // same idea here, except regions are 512x512 instead of 16x16, so 2x2 is plenty
+    private final CachedRegion[] regions = new CachedRegion[4];
 
     private final boolean useTheRealWorld;
 
     private static final BlockState AIR = Blocks.AIR.defaultBlockState();
 
+    /**
+     * How many chunks along each axis are remembered, has to be a power of two
+     */
+    private static final int CHUNK_RING_SIZE = 4;
+
+    /**
+     * How close to the edge of a region a position has to be for {@link #prefetchRegions} to load the region next to it
+     */
+    private static final int PREFETCH_DISTANCE = 128;
+
+    /**
+     * How far the window reaches from its center in every direction. Every movement except long falls and parkour
+     * stays within this.
+     */
+    private static final int WINDOW_RADIUS = 3;
+    private static final int WINDOW_SIZE = WINDOW_RADIUS * 2 + 1;
+
+    // the blocks around the node that's being expanded, see centerWindow
+    // an entry is only valid if its stamp is the current one, so moving the window doesn't need to clear anything
+    private BlockState[] window;
+    private int[] windowStamps;
+    private int windowStamp;
+    private int windowX;
+    private int windowY;
+    private int windowZ;
+
     public BlockStateInterface(IPlayerContext ctx) {
         this(ctx, false);
     }
 
     public BlockStateInterface(IPlayerContext ctx, boolean copyLoadedChunks) {
+        this(ctx, copyLoadedChunks, null);
+    }
+
+    /**
+     * @param snapshots If not null, read from a snapshot of the loaded chunks taken from this instead of the live ones,
+     *                  so that another thread never sees them half changed
+     */
+    public BlockStateInterface(IPlayerContext ctx, boolean copyLoadedChunks, ChunkSnapshots snapshots) {
         this.world = ctx.world();
+        this.source = null;
+        this.minY = world.dimensionType().minY();
+        this.height = world.dimensionType().height();
         this.worldBorder = new BetterWorldBorder(world.getWorldBorder());
         this.worldData = (WorldData) ctx.worldData();
-        if (copyLoadedChunks) {
+        if (copyLoadedChunks && snapshots == null) { // the snapshot replaces the copy
             this.provider = ((IClientChunkProvider) world.getChunkSource()).createThreadSafeCopy();
         } else {
             this.provider = (ClientChunkCache) world.getChunkSource();
@@ -72,14 +134,84 @@ public class BlockStateInterface {
         if (!ctx.minecraft().isSameThread()) {
             throw new IllegalStateException("BlockStateInterface must be constructed on the main thread");
         }
+        if (snapshots != null) {
+            BlockPos feet = ctx.playerFeet();
+            this.snapshot = snapshots.capture(world, feet.getX() >> 4, feet.getZ() >> 4, Baritone.settings().pathingChunkSnapshotRadius.value);
+        } else {
+            this.snapshot = null;
+        }
+        this.isPassableBlockPos = new BlockPos.MutableBlockPos();
+        this.access = new BlockStateInterfaceAccessWrapper(this);
+    }
+
+    /**
+     * @see #forCalculation()
+     */
+    private BlockStateInterface(BlockStateInterface parent) {
+        this.world = parent.world;
+        this.source = parent.source;
+        this.minY = parent.minY;
+        this.height = parent.height;
+        this.worldBorder = parent.worldBorder;
+        this.worldData = parent.worldData;
+        this.provider = parent.provider;
+        this.useTheRealWorld = parent.useTheRealWorld;
+        this.snapshot = parent.snapshot;
         this.isPassableBlockPos = new BlockPos.MutableBlockPos();
         this.access = new BlockStateInterfaceAccessWrapper(this);
     }
 
+    /**
+     * Reads blocks from the given source instead of the client world. Unlike the other constructors, this one doesn't
+     * need Minecraft to be running, so it's safe to use from tests, benchmarks and any other thread.
+     *
+     * @param source      Where to get blocks from
+     * @param minY        The lowest y position in the world
+     * @param height      The height of the world, positions at or above {@code minY + height} are air
+     * @param worldBorder The world border the path finder has to stay within
+     */
+    public BlockStateInterface(IBlockSource source, int minY, int height, BetterWorldBorder worldBorder) {
+        this.world = null;
+        this.provider = null;
+        this.worldData = null;
+        this.source = source;
+        this.minY = minY;
+        this.height = height;
+        this.worldBorder = worldBorder;
+        this.useTheRealWorld = false;
+        this.snapshot = null;
+        this.isPassableBlockPos = new BlockPos.MutableBlockPos();
+        this.access = new BlockStateInterfaceAccessWrapper(this);
+    }
+
+    /**
+     * @return A view of the same blocks with caches of its own, for a path calculation to use on its own thread. The
+     * {@link #centerWindow window} and the {@link #materialize materialized region} are only ever used through one of
+     * these, so whoever else is reading this instance at the same time, e.g. the path executor on the main thread,
+     * never sees them.
+     */
+    public BlockStateInterface forCalculation() {
+        return new BlockStateInterface(this);
+    }
+
     public boolean worldContainsLoadedChunk(int blockX, int blockZ) {
+        if (source != null) {
+            return source.isLoaded(blockX, blockZ);
+        }
+        if (snapshot != null) {
+            return snapshot.getChunk(blockX >> 4, blockZ >> 4) != null;
+        }
         return provider.hasChunk(blockX >> 4, blockZ >> 4);
     }
 
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
     public static Block getBlock(IPlayerContext ctx, BlockPos pos) { // won't be called from the pathing thread because the pathing thread doesn't make a single blockpos pog
         return get(ctx, pos).getBlock();
     }
@@ -94,74 +226,236 @@ public class BlockStateInterface {
         return get0(pos.getX(), pos.getY(), pos.getZ());
     }
 
-    public BlockState get0(int x, int y, int z) { // Mickey resigned
-        y -= world.dimensionType().minY();
+    /**
+     * Remembers every block looked up near this position, until the window is moved again. All the movements from
+     * one node read mostly the same few blocks, so this turns most of those reads into a single array lookup.
+     * <p>
+     * Not thread safe, only use this on an instance from {@link #forCalculation()} that no other thread reads.
+     *
+     * @param x The x position of the center
+     * @param y The y position of the center
+     * @param z The z position of the center
+     */
+    public void centerWindow(int x, int y, int z) {
+        if (window == null) {
+            window = new BlockState[WINDOW_SIZE * WINDOW_SIZE * WINDOW_SIZE];
+            windowStamps = new int[window.length];
+        }
+        if (++windowStamp == 0) {
+            // wrapped around, every old stamp could be mistaken for a current one
+            Arrays.fill(windowStamps, 0);
+            windowStamp = 1;
+        }
+        windowX = x - WINDOW_RADIUS;
+        windowY = y - WINDOW_RADIUS;
+        windowZ = z - WINDOW_RADIUS;
+    }
+
+    /**
+     * Stops remembering blocks, see {@link #centerWindow(int, int, int)}
+     */
+    public void closeWindow() {
+        window = null;
+        windowStamps = null;
+    }
+
+    public BlockState get0(int x, int y, int z) {
+        int[] stamps = windowStamps;
+        if (stamps != null) {
+            int dx = x - windowX;
+            int dy = y - windowY;
+            int dz = z - windowZ;
+            if ((dx | dy | dz) >= 0 && dx < WINDOW_SIZE && dy < WINDOW_SIZE && dz < WINDOW_SIZE) {
+                int index = (dx * WINDOW_SIZE + dz) * WINDOW_SIZE + dy;
+                if (stamps[index] == windowStamp) {
+                    return window[index];
+                }
+                BlockState state = get1(x, y, z);
+                window[index] = state;
+                stamps[index] = windowStamp;
+                return state;
+            }
+        }
+        return get1(x, y, z);
+    }
+
+    private BlockState get1(int x, int y, int z) { // Mickey resigned
+        MaterializedRegion region = this.region;
+        if (region != null) {
+            int index = region.index(x, y, z);
+            if (index >= 0) {
+                return Block.stateById(region.ids[index]);
+            }
+        }
+        y -= minY;
         // Invalid vertical position
-        if (y < 0 || y >= world.dimensionType().height()) {
+        if (y < 0 || y >= height) {
             return AIR;
         }
+        if (source != null) {
+            return source.get(x, y + minY, z);
+        }
 
-        if (useTheRealWorld) {
-            LevelChunk cached = prev;
-            // there's great cache locality in block state lookups
-            // generally it's within each movement
-            // if it's the same chunk as last time
-            // we can just skip the mc.world.getChunk lookup
-            // which is a Long2ObjectOpenHashMap.get
-            // see issue #113
-            if (cached != null && cached.getPos().x == x >> 4 && cached.getPos().z == z >> 4) {
-                return getFromChunk(cached, x, y, z);
+        if (useTheRealWorld && snapshot != null) {
+            ChunkSnapshots.Chunk chunk = getSnapshotChunk(x >> 4, z >> 4);
+            if (chunk != null) {
+                PalettedContainer<BlockState> section = chunk.getSection(y >> 4);
+                return section == null ? AIR : section.get(x & 15, y & 15, z & 15);
             }
-            LevelChunk chunk = provider.getChunk(x >> 4, z >> 4, ChunkStatus.FULL, false);
-            if (chunk != null && !chunk.isEmpty()) {
-                prev = chunk;
+        } else if (useTheRealWorld) {
+            LevelChunk chunk = getLoadedChunk(x >> 4, z >> 4);
+            if (chunk != null) {
                 return getFromChunk(chunk, x, y, z);
             }
         }
-        // same idea here, skip the Long2ObjectOpenHashMap.get if at all possible
-        // except here, it's 512x512 tiles instead of 16x16, so even better repetition
-        CachedRegion cached = prevCached;
-        if (cached == null || cached.getX() != x >> 9 || cached.getZ() != z >> 9) {
-            if (worldData == null) {
-                return AIR;
-            }
-            CachedRegion region = worldData.cache.getRegion(x >> 9, z >> 9);
-            if (region == null) {
-                return AIR;
-            }
-            prevCached = region;
-            cached = region;
+        CachedRegion cached = getCachedRegion(x >> 9, z >> 9);
+        if (cached == null) {
+            return AIR;
         }
-        BlockState type = cached.getBlock(x & 511, y + world.dimensionType().minY(), z & 511);
+        BlockState type = cached.getBlock(x & 511, y + minY, z & 511);
         if (type == null) {
             return AIR;
         }
         return type;
     }
 
+    /**
+     * Reads every block in the box once, so that reading any of them again afterwards is a single array lookup, until
+     * {@link #dematerialize()}. Blocks that change in the meantime aren't seen, so this is only for an instance from
+     * {@link #forCalculation()}, and has to be done by the thread that's going to use it, before it starts.
+     *
+     * @see baritone.api.Settings#pathingMaterializeRegion
+     */
+    public void materialize(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        minY = Math.max(minY, this.minY);
+        maxY = Math.min(maxY, this.minY + height - 1);
+        if (minX > maxX || minY > maxY || minZ > maxZ) {
+            return;
+        }
+        MaterializedRegion region = new MaterializedRegion(minX, minY, minZ, maxX - minX + 1, maxY - minY + 1, maxZ - minZ + 1);
+        this.region = null;
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int y = minY; y <= maxY; y++) {
+                    region.ids[region.index(x, y, z)] = Block.BLOCK_STATE_REGISTRY.getId(get1(x, y, z));
+                }
+            }
+        }
+        this.region = region;
+    }
+
+    /**
+     * Goes back to reading the blocks as they are now, see {@link #materialize}
+     */
+    public void dematerialize() {
+        region = null;
+    }
+
+    /**
+     * @param state The block state at this position
+     * @return The id of that block state, without having to look it up if it's in the {@link #materialize materialized}
+     * region
+     */
+    public int getStateId(int x, int y, int z, BlockState state) {
+        MaterializedRegion region = this.region;
+        if (region != null) {
+            int index = region.index(x, y, z);
+            // the caller might be asking about a different state than the one that's there, e.g. one it's going to place
+            if (index >= 0 && Block.stateById(region.ids[index]) == state) {
+                return region.ids[index];
+            }
+        }
+        return Block.BLOCK_STATE_REGISTRY.getId(state);
+    }
+
     public boolean isLoaded(int x, int z) {
-        LevelChunk prevChunk = prev;
-        if (prevChunk != null && prevChunk.getPos().x == x >> 4 && prevChunk.getPos().z == z >> 4) {
-            return true;
+        if (source != null) {
+            return source.isLoaded(x, z);
         }
-        prevChunk = provider.getChunk(x >> 4, z >> 4, ChunkStatus.FULL, false);
-        if (prevChunk != null && !prevChunk.isEmpty()) {
-            prev = prevChunk;
+        if (snapshot != null ? getSnapshotChunk(x >> 4, z >> 4) != null : getLoadedChunk(x >> 4, z >> 4) != null) {
             return true;
         }
-        CachedRegion prevRegion = prevCached;
-        if (prevRegion != null && prevRegion.getX() == x >> 9 && prevRegion.getZ() == z >> 9) {
-            return prevRegion.isCached(x & 511, z & 511);
+        CachedRegion region = getCachedRegion(x >> 9, z >> 9);
+        return region != null && region.isCached(x & 511, z & 511);
+    }
+
+    /**
+     * Starts loading the cached region this position is in from disk in the background, as well as the ones next to it
+     * if the position is getting close to them, so that they're ready by the time they're read
+     *
+     * @see baritone.api.Settings#pathingPrefetchRegions
+     */
+    public void prefetchRegions(int x, int z) {
+        if (worldData == null) {
+            return;
+        }
+        int regionX = x >> 9;
+        int regionZ = z >> 9;
+        int dx = (x & 511) < PREFETCH_DISTANCE ? -1 : (x & 511) >= 512 - PREFETCH_DISTANCE ? 1 : 0;
+        int dz = (z & 511) < PREFETCH_DISTANCE ? -1 : (z & 511) >= 512 - PREFETCH_DISTANCE ? 1 : 0;
+        prefetchRegion(regionX, regionZ);
+        if (dx != 0) {
+            prefetchRegion(regionX + dx, regionZ);
+        }
+        if (dz != 0) {
+            prefetchRegion(regionX, regionZ + dz);
+        }
+        if (dx != 0 && dz != 0) {
+            prefetchRegion(regionX + dx, regionZ + dz);
+        }
+    }
+
+    private void prefetchRegion(int regionX, int regionZ) {
+        if (getCachedRegion(regionX, regionZ) == null) {
+            worldData.cache.prefetchRegion(regionX, regionZ);
+        }
+    }
+
+    private static int chunkSlot(int chunkX, int chunkZ) {
+        return (chunkX & (CHUNK_RING_SIZE - 1)) * CHUNK_RING_SIZE + (chunkZ & (CHUNK_RING_SIZE - 1));
+    }
+
+    private LevelChunk getLoadedChunk(int chunkX, int chunkZ) {
+        int slot = chunkSlot(chunkX, chunkZ);
+        LevelChunk chunk = chunks[slot];
+        if (chunk != null && chunk.getPos().x == chunkX && chunk.getPos().z == chunkZ) {
+            return chunk;
+        }
+        chunk = provider.getChunk(chunkX, chunkZ, ChunkStatus.FULL, false);
+        if (chunk == null || chunk.isEmpty()) {
+            return null;
+        }
+        chunks[slot] = chunk;
+        return chunk;
+    }
+
+    private ChunkSnapshots.Chunk getSnapshotChunk(int chunkX, int chunkZ) {
+        int slot = chunkSlot(chunkX, chunkZ);
+        ChunkSnapshots.Chunk chunk = snapshotChunks[slot];
+        if (chunk != null && chunk.x == chunkX && chunk.z == chunkZ) {
+            return chunk;
+        }
+        chunk = snapshot.getChunk(chunkX, chunkZ);
+        if (chunk != null) {
+            snapshotChunks[slot] = chunk;
+        }
+        return chunk;
+    }
+
+    private CachedRegion getCachedRegion(int regionX, int regionZ) {
+        int slot = (regionX & 1) << 1 | (regionZ & 1);
+        CachedRegion region = regions[slot];
+        if (region != null && region.getX() == regionX && region.getZ() == regionZ) {
+            return region;
         }
         if (worldData == null) {
-            return false;
+            return null;
         }
-        prevRegion = worldData.cache.getRegion(x >> 9, z >> 9);
-        if (prevRegion == null) {
-            return false;
+        region = worldData.cache.getRegion(regionX, regionZ);
+        if (region != null) {
+            regions[slot] = region;
         }
-        prevCached = prevRegion;
-        return prevRegion.isCached(x & 511, z & 511);
+        return region;
     }
 
     // get the block at x,y,z from this chunk WITHOUT creating a single blockpos object
@@ -0,0 +1,123 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package baritone.utils;
+
+import baritone.Baritone;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A token bucket of CPU time shared by everything Baritone does in the background, i.e. path calculations and block
+ * rescans. Work is charged to it after the fact, and whoever finds it in debt waits until it has refilled, so that on
+ * average Baritone uses no more than {@link baritone.api.Settings#backgroundCpuBudgetMSPerTick} per game tick.
+ */
+public final class CpuBudget {
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /**
+     * Never sleep for longer than this at once, so that the budget being lowered or turned off applies quickly
+     */
+    private static final long MAX_SLEEP_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static long balance;
+    private static long lastRefill = System.nanoTime();
+
+    /**
+     * Set whenever the budget is found to be off, so that the time it was off for isn't counted once it's turned back on
+     */
+    private static volatile boolean idle = true;
+
+    private CpuBudget() {}
+
+    /**
+     * @param nanos How much time was just spent working
+     */
+    public static void charge(long nanos) {
+        if (budget() <= 0) {
+            idle = true;
+            return;
+        }
+        synchronized (CpuBudget.class) {
+            refill();
+            balance -= nanos;
+        }
+    }
+
+    /**
+     * Waits until the budget isn't in debt anymore
+     */
+    public static void throttle() {
+        while (true) {
+            long budget = budget();
+            if (budget <= 0) {
+                idle = true;
+                return;
+            }
+            long debt;
+            synchronized (CpuBudget.class) {
+                refill();
+                debt = -balance;
+            }
+            if (debt <= 0) {
+                return;
+            }
+            // the bucket gets budget nanos of work per tick, and a whole tick is already longer than the longest sleep
+            LockSupport.parkNanos(debt >= budget ? MAX_SLEEP_NANOS : Math.min(MAX_SLEEP_NANOS, debt * TICK_NANOS / budget));
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Waits for the budget, then runs the task and charges the time it took
+     */
+    public static void run(Runnable task) {
+        throttle();
+        long start = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            charge(System.nanoTime() - start);
+        }
+    }
+
+    private static long budget() {
+        return TimeUnit.MILLISECONDS.toNanos(Baritone.settings().backgroundCpuBudgetMSPerTick.value);
+    }
+
+    private static void refill() {
+        long budget = budget();
+        long now = System.nanoTime();
+        if (idle) {
+            // just turned on, start from an empty bucket instead of whatever was left from the last time it was on
+            idle = false;
+            balance = 0;
+            lastRefill = now;
+            return;
+        }
+        // at most one tick worth can be saved up, so that idling doesn't allow a long burst afterwards
+        // clamping before multiplying also keeps a long gap between calls from overflowing
+        long elapsed = Math.min(TICK_NANOS, now - lastRefill);
+        lastRefill = now;
+        balance = Math.min(budget, balance + elapsed * budget / TICK_NANOS);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils;
+
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Where a {@link BlockStateInterface} gets its blocks from when it isn't reading the client world, so that the path
+ * finder can be run against a world that only exists in memory or on disk
+ *
+ * @see BlockStateInterface#BlockStateInterface(IBlockSource, int, int, baritone.utils.pathing.BetterWorldBorder)
+ */
+public interface IBlockSource {
+
+    /**
+     * Only called with a y coordinate inside the vertical bounds the {@link BlockStateInterface} was created with
+     *
+     * @param x The block x position
+     * @param y The block y position
+     * @param z The block z position
+     * @return The block state at the given position, or air if nothing is known about it
+     */
+    BlockState get(int x, int y, int z);
+
+    /**
+     * @param x The block x position
+     * @param z The block z position
+     * @return Whether blocks are known for the column at the given position
+     */
+    boolean isLoaded(int x, int z);
+}
@@ -0,0 +1,64 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package baritone.utils;
+
+/**
+ * The block state id of every position in a box, decoded from the chunk sections once so that reading a block in it is
+ * a single array lookup instead of a palette lookup, and the id doesn't have to be looked up again for
+ * {@link baritone.pathing.precompute.PrecomputedData}
+ *
+ * @see BlockStateInterface#materialize
+ */
+final class MaterializedRegion {
+
+    final int minX;
+    final int minY;
+    final int minZ;
+    final int sizeX;
+    final int sizeY;
+    final int sizeZ;
+
+    /**
+     * Indexed by {@link #index}, see {@link net.minecraft.world.level.block.Block#BLOCK_STATE_REGISTRY}
+     */
+    final int[] ids;
+
+    MaterializedRegion(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.ids = new int[sizeX * sizeY * sizeZ];
+    }
+
+    /**
+     * @return The index of this position in {@link #ids}, or -1 if it's outside of the box
+     */
+    int index(int x, int y, int z) {
+        int dx = x - minX;
+        int dy = y - minY;
+        int dz = z - minZ;
+        if ((dx | dy | dz) < 0 || dx >= sizeX || dy >= sizeY || dz >= sizeZ) {
+            return -1;
+        }
+        return (dx * sizeZ + dz) * sizeY + dy;
+    }
+}
@@ -35,9 +35,11 @@ import net.minecraft.world.item.enchantment.effects.EnchantmentAttributeEffect;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
@@ -74,11 +76,14 @@ public class ToolSet {
         ItemTags.NETHERITE_TOOL_MATERIALS
     );
 
+    /**
+     * @param player The player whose hotbar to use, or {@code null} to mine everything by hand
+     */
     public ToolSet(LocalPlayer player) {
-        breakStrengthCache = new HashMap<>();
+        breakStrengthCache = new ConcurrentHashMap<>(); // shared between the worker threads of a parallel path calculation
         this.player = player;
 
-        if (Baritone.settings().considerPotionEffects.value) {
+        if (Baritone.settings().considerPotionEffects.value && player != null) {
             double amplifier = potionAmplifier();
             Function<Double, Double> amplify = x -> amplifier * x;
             backendCalculation = amplify.compose(this::getBestDestructionTime);
@@ -97,6 +102,34 @@ public class ToolSet {
         return breakStrengthCache.computeIfAbsent(state.getBlock(), backendCalculation);
     }
 
+    /**
+     * @return Everything {@link #getStrVsBlock} depends on right now. Two tool sets with equal keys give the same
+     * speeds, as long as the hotbar doesn't change while they're used.
+     */
+    public List<Object> strVsBlockKey() {
+        List<Object> key = new ArrayList<>(Arrays.asList(
+                Baritone.settings().autoTool.value,
+                Baritone.settings().useSwordToMine.value,
+                Baritone.settings().itemSaver.value,
+                Baritone.settings().itemSaverThreshold.value,
+                new ArrayList<>(Baritone.settings().blocksToAvoidBreaking.value),
+                Baritone.settings().avoidBreakingMultiplier.value,
+                Baritone.settings().considerPotionEffects.value
+        ));
+        if (player != null) {
+            for (int i = 0; i < 9; i++) {
+                ItemStack stack = player.getInventory().getItem(i);
+                key.add(stack.getItem());
+                key.add(stack.getComponentsPatch()); // enchantments and damage
+            }
+            key.add(player.getInventory().getSelectedSlot());
+            if (Baritone.settings().considerPotionEffects.value) {
+                key.add(potionAmplifier());
+            }
+        }
+        return key;
+    }
+
     /**
      * Evaluate the material cost of a possible tool.
      * If all else is equal, we want to prefer the tool with the lowest material cost.
@@ -188,7 +221,7 @@ public class ToolSet {
      * @return A double containing the destruction ticks with the best tool
      */
     private double getBestDestructionTime(Block b) {
-        ItemStack stack = player.getInventory().getItem(getBestSlot(b, false, true));
+        ItemStack stack = player == null ? ItemStack.EMPTY : player.getInventory().getItem(getBestSlot(b, false, true));
         return calculateSpeedVsBlock(stack, b.defaultBlockState()) * avoidanceMultiplier(b);
     }
 
@@ -18,13 +18,14 @@
 package baritone.utils.pathing;
 
 import baritone.Baritone;
-import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.IPlayerContext;
-import it.unimi.dsi.fastutil.longs.Long2DoubleOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
 import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.monster.EnderMan;
 import net.minecraft.world.entity.monster.Spider;
@@ -81,16 +82,63 @@ public class Avoidance {
         return res;
     }
 
-    public void applySpherical(Long2DoubleOpenHashMap map) {
-        for (int x = -radius; x <= radius; x++) {
-            for (int y = -radius; y <= radius; y++) {
-                for (int z = -radius; z <= radius; z++) {
-                    if (x * x + y * y + z * z <= radius * radius) {
-                        long hash = BetterBlockPos.longHash(centerX + x, centerY + y, centerZ + z);
-                        map.put(hash, map.get(hash) * coefficient);
+    /**
+     * Multiplies the coefficient into every position within the radius
+     *
+     * @param builder  The field to apply to
+     * @param sections If not null, only positions in these sections (see {@link SectionPos#asLong(int, int, int)}) are
+     *                 applied to
+     */
+    public void applySpherical(CostField.Builder builder, LongSet sections) {
+        for (int sx = (centerX - radius) >> 4; sx <= (centerX + radius) >> 4; sx++) {
+            for (int sy = (centerY - radius) >> 4; sy <= (centerY + radius) >> 4; sy++) {
+                for (int sz = (centerZ - radius) >> 4; sz <= (centerZ + radius) >> 4; sz++) {
+                    if (sections != null && !sections.contains(SectionPos.asLong(sx, sy, sz))) {
+                        continue;
                     }
+                    // the part of the sphere's bounding box in this section
+                    for (int x = Math.max(centerX - radius, sx << 4); x <= Math.min(centerX + radius, sx << 4 | 15); x++) {
+                        for (int y = Math.max(centerY - radius, sy << 4); y <= Math.min(centerY + radius, sy << 4 | 15); y++) {
+                            for (int z = Math.max(centerZ - radius, sz << 4); z <= Math.min(centerZ + radius, sz << 4 | 15); z++) {
+                                if (coefficient(x, y, z) != 1.0D) {
+                                    builder.multiply(x, y, z, coefficient);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param sections Gets the {@link SectionPos#asLong(int, int, int)} of every section within the radius added to it
+     */
+    public void addSections(LongSet sections) {
+        for (int sx = (centerX - radius) >> 4; sx <= (centerX + radius) >> 4; sx++) {
+            for (int sy = (centerY - radius) >> 4; sy <= (centerY + radius) >> 4; sy++) {
+                for (int sz = (centerZ - radius) >> 4; sz <= (centerZ + radius) >> 4; sz++) {
+                    sections.add(SectionPos.asLong(sx, sy, sz));
                 }
             }
         }
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Avoidance)) {
+            return false;
+        }
+        Avoidance other = (Avoidance) o;
+        return centerX == other.centerX && centerY == other.centerY && centerZ == other.centerZ
+                && coefficient == other.coefficient && radius == other.radius;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(centerX, centerY, centerZ, coefficient, radius);
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package baritone.utils.pathing;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.List;
+
+/**
+ * Keeps the {@link CostField} of the avoidances from the previous calculation, so that the next one only has to
+ * rebuild the sections that an avoidance appeared in or disappeared from. Spawners don't move, and most mobs only move
+ * a little between calculations, so most sections are usually just reused.
+ */
+public final class AvoidanceField {
+
+    private Object2IntOpenHashMap<Avoidance> counts = new Object2IntOpenHashMap<>();
+    private CostField field = CostField.EMPTY;
+
+    /**
+     * @param avoidances Everything to avoid right now
+     * @return The cost field for those avoidances
+     */
+    public synchronized CostField update(List<Avoidance> avoidances) {
+        Object2IntOpenHashMap<Avoidance> current = new Object2IntOpenHashMap<>();
+        for (Avoidance avoid : avoidances) {
+            current.addTo(avoid, 1);
+        }
+        if (current.equals(counts)) {
+            return field;
+        }
+        LongOpenHashSet dirty = new LongOpenHashSet();
+        for (Object2IntMap.Entry<Avoidance> entry : counts.object2IntEntrySet()) {
+            if (current.getInt(entry.getKey()) != entry.getIntValue()) {
+                entry.getKey().addSections(dirty);
+            }
+        }
+        for (Object2IntMap.Entry<Avoidance> entry : current.object2IntEntrySet()) {
+            if (counts.getInt(entry.getKey()) != entry.getIntValue()) {
+                entry.getKey().addSections(dirty);
+            }
+        }
+        CostField.Builder builder = new CostField.Builder();
+        field.forEachSection((key, section) -> {
+            if (!dirty.contains((long) key)) {
+                builder.keep(key, section);
+            }
+        });
+        for (Avoidance avoid : avoidances) {
+            avoid.applySpherical(builder, dirty);
+        }
+        counts = current;
+        field = builder.build();
+        return field;
+    }
+}
@@ -37,6 +37,13 @@ public class BetterWorldBorder {
         this.maxZ = border.getMaxZ();
     }
 
+    public BetterWorldBorder(double minX, double maxX, double minZ, double maxZ) {
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minZ = minZ;
+        this.maxZ = maxZ;
+    }
+
     public boolean entirelyContains(int x, int z) {
         return x + 1 > minX && x < maxX && z + 1 > minZ && z < maxZ;
     }
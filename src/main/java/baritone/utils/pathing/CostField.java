@@ -0,0 +1,223 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package baritone.utils.pathing;
+
+import it.unimi.dsi.fastutil.doubles.Double2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.SectionPos;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * Cost multipliers for block positions, stored per 16x16x16 section so that a position that isn't in any section costs
+ * nothing to store, and a section that has the same multiplier everywhere (like the inside of a big avoidance sphere)
+ * is only one number.
+ * <p>
+ * The other sections store a byte per block, indexing into a palette of the multipliers that actually occur in that
+ * section, so every lookup is exact. If the sections all fit in a small enough box, they're kept in a flat array, so
+ * looking up a position is just arithmetic instead of a hash map lookup.
+ * <p>
+ * Immutable once built, so it's safe to use from several threads, and sections can be shared between fields.
+ */
+public final class CostField {
+
+    public static final CostField EMPTY = new Builder().build();
+
+    /**
+     * The most sections the flat array is allowed to have, beyond that they're looked up in the map
+     */
+    private static final int MAX_DENSE_SECTIONS = 1 << 16;
+
+    private final Long2ObjectOpenHashMap<Section> sections;
+
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+
+    /**
+     * Every section in the bounding box of {@link #sections}, or null if that box is too big
+     */
+    private final Section[] dense;
+
+    private CostField(Long2ObjectOpenHashMap<Section> sections) {
+        this.sections = sections;
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (long key : sections.keySet()) {
+            minX = Math.min(minX, SectionPos.x(key));
+            minY = Math.min(minY, SectionPos.y(key));
+            minZ = Math.min(minZ, SectionPos.z(key));
+            maxX = Math.max(maxX, SectionPos.x(key));
+            maxY = Math.max(maxY, SectionPos.y(key));
+            maxZ = Math.max(maxZ, SectionPos.z(key));
+        }
+        if (sections.isEmpty()) {
+            minX = minY = minZ = 0;
+            maxX = maxY = maxZ = -1;
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.sizeX = maxX - minX + 1;
+        this.sizeY = maxY - minY + 1;
+        this.sizeZ = maxZ - minZ + 1;
+        if ((long) sizeX * sizeY * sizeZ <= MAX_DENSE_SECTIONS) {
+            this.dense = new Section[sizeX * sizeY * sizeZ];
+            for (Long2ObjectMap.Entry<Section> entry : sections.long2ObjectEntrySet()) {
+                long key = entry.getLongKey();
+                dense[index(SectionPos.x(key) - minX, SectionPos.y(key) - minY, SectionPos.z(key) - minZ)] = entry.getValue();
+            }
+        } else {
+            this.dense = null;
+        }
+    }
+
+    public boolean isEmpty() {
+        return sections.isEmpty();
+    }
+
+    /**
+     * @return The cost multiplier at this position, 1 if nothing was set there
+     */
+    public double get(int x, int y, int z) {
+        Section section;
+        if (dense != null) {
+            int sx = (x >> 4) - minX;
+            int sy = (y >> 4) - minY;
+            int sz = (z >> 4) - minZ;
+            if ((sx | sy | sz) < 0 || sx >= sizeX || sy >= sizeY || sz >= sizeZ) {
+                return 1;
+            }
+            section = dense[index(sx, sy, sz)];
+        } else {
+            section = sections.get(SectionPos.asLong(x >> 4, y >> 4, z >> 4));
+        }
+        return section == null ? 1 : section.get(blockIndex(x, y, z));
+    }
+
+    /**
+     * @param consumer Called with the {@link SectionPos#asLong key} of every section, and the section
+     */
+    void forEachSection(BiConsumer<Long, Section> consumer) {
+        sections.long2ObjectEntrySet().forEach(entry -> consumer.accept(entry.getLongKey(), entry.getValue()));
+    }
+
+    private int index(int sx, int sy, int sz) {
+        return (sx * sizeZ + sz) * sizeY + sy;
+    }
+
+    private static int blockIndex(int x, int y, int z) {
+        return (x & 15) << 8 | (z & 15) << 4 | (y & 15);
+    }
+
+    static final class Section {
+
+        /**
+         * The distinct multipliers in this section, or every multiplier if there are too many distinct ones for a byte
+         */
+        private final double[] palette;
+
+        /**
+         * Index into {@link #palette} per block, null if the section has only one multiplier or no palette
+         */
+        private final byte[] indices;
+
+        private Section(double[] palette, byte[] indices) {
+            this.palette = palette;
+            this.indices = indices;
+        }
+
+        double get(int index) {
+            if (indices != null) {
+                return palette[indices[index] & 0xFF];
+            }
+            return palette.length == 1 ? palette[0] : palette[index];
+        }
+
+        /**
+         * @return Whether every block in this section has a multiplier of 1, so it doesn't need to be stored
+         */
+        boolean isNeutral() {
+            return indices == null && palette.length == 1 && palette[0] == 1;
+        }
+
+        static Section of(double[] values) {
+            Double2IntOpenHashMap ids = new Double2IntOpenHashMap();
+            byte[] indices = new byte[values.length];
+            for (int i = 0; i < values.length; i++) {
+                int id = ids.computeIfAbsent(values[i], value -> ids.size());
+                if (id > 255) {
+                    return new Section(values, null);
+                }
+                indices[i] = (byte) id;
+            }
+            double[] palette = new double[ids.size()];
+            ids.double2IntEntrySet().forEach(entry -> palette[entry.getIntValue()] = entry.getDoubleKey());
+            return new Section(palette, palette.length == 1 ? null : indices);
+        }
+    }
+
+    public static final class Builder {
+
+        /**
+         * Sections being built, with a multiplier per block
+         */
+        private final Long2ObjectOpenHashMap<double[]> building = new Long2ObjectOpenHashMap<>();
+
+        /**
+         * Sections taken as they are from an existing field
+         */
+        private final Long2ObjectOpenHashMap<Section> kept = new Long2ObjectOpenHashMap<>();
+
+        /**
+         * Multiplies the cost multiplier at this position
+         */
+        public void multiply(int x, int y, int z, double coefficient) {
+            double[] values = building.computeIfAbsent(SectionPos.asLong(x >> 4, y >> 4, z >> 4), key -> {
+                double[] fresh = new double[16 * 16 * 16];
+                Arrays.fill(fresh, 1);
+                return fresh;
+            });
+            values[blockIndex(x, y, z)] *= coefficient;
+        }
+
+        /**
+         * Copies a section from another field unchanged. Nothing may be multiplied into that section afterwards.
+         */
+        void keep(long key, Section section) {
+            kept.put(key, section);
+        }
+
+        public CostField build() {
+            Long2ObjectOpenHashMap<Section> sections = new Long2ObjectOpenHashMap<>(kept);
+            building.long2ObjectEntrySet().forEach(entry -> {
+                Section section = Section.of(entry.getValue());
+                if (!section.isNeutral()) {
+                    sections.put(entry.getLongKey(), section);
+                }
+            });
+            return new CostField(sections);
+        }
+    }
+}
@@ -18,38 +18,46 @@
 package baritone.utils.pathing;
 
 import baritone.api.pathing.calc.IPath;
-import baritone.api.utils.BetterBlockPos;
-import baritone.api.utils.Helper;
 import baritone.api.utils.IPlayerContext;
 import baritone.pathing.movement.CalculationContext;
-import it.unimi.dsi.fastutil.longs.Long2DoubleOpenHashMap;
 
 public final class Favoring {
 
-    private final Long2DoubleOpenHashMap favorings;
+    private final CostField avoidances;
+    private final CostField backtrack;
 
     public Favoring(IPlayerContext ctx, IPath previous, CalculationContext context) {
-        this(previous, context);
-        for (Avoidance avoid : Avoidance.create(ctx)) {
-            avoid.applySpherical(favorings);
-        }
-        Helper.HELPER.logDebug("Favoring size: " + favorings.size());
+        this(ctx, previous, context, new AvoidanceField());
+    }
+
+    /**
+     * @param avoidanceField Keeps the avoidances from the previous calculation, so that they don't have to be
+     *                       rebuilt from scratch
+     */
+    public Favoring(IPlayerContext ctx, IPath previous, CalculationContext context, AvoidanceField avoidanceField) {
+        this(previous, context, avoidanceField.update(Avoidance.create(ctx)));
     }
 
     public Favoring(IPath previous, CalculationContext context) { // create one just from previous path, no mob avoidances
-        favorings = new Long2DoubleOpenHashMap();
-        favorings.defaultReturnValue(1.0D);
+        this(previous, context, CostField.EMPTY);
+    }
+
+    private Favoring(IPath previous, CalculationContext context, CostField avoidances) {
+        this.avoidances = avoidances;
+        CostField.Builder builder = new CostField.Builder();
         double coeff = context.backtrackCostFavoringCoefficient;
         if (coeff != 1D && previous != null) {
-            previous.positions().forEach(pos -> favorings.put(BetterBlockPos.longHash(pos), coeff));
+            // a path can visit a position more than once, but it should only be favored once
+            previous.positions().stream().distinct().forEach(pos -> builder.multiply(pos.x, pos.y, pos.z, coeff));
         }
+        this.backtrack = builder.build();
     }
 
     public boolean isEmpty() {
-        return favorings.isEmpty();
+        return avoidances.isEmpty() && backtrack.isEmpty();
     }
 
-    public double calculate(long hash) {
-        return favorings.get(hash);
+    public double calculate(int x, int y, int z) {
+        return avoidances.get(x, y, z) * backtrack.get(x, y, z);
     }
 }
@@ -0,0 +1,103 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.goals.Goal;
+import baritone.api.utils.BetterBlockPos;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CompactNodeStoreTest {
+
+    // can't use an existing goal because they use Baritone.settings()
+    private static final Goal GOAL = new Goal() {
+        @Override
+        public boolean isInGoal(int x, int y, int z) {
+            return false;
+        }
+
+        @Override
+        public double heuristic(int x, int y, int z) {
+            return x + y + z;
+        }
+    };
+
+    @Test
+    public void testGetOrCreate() {
+        // start tiny so that both the arrays and the index have to grow many times
+        CompactNodeStore store = new CompactNodeStore(GOAL, 1, 0.75f);
+        int[][] ids = new int[64][64];
+        for (int x = 0; x < 64; x++) {
+            for (int z = 0; z < 64; z++) {
+                ids[x][z] = store.getOrCreate(x, 5, z, BetterBlockPos.longHash(x, 5, z));
+            }
+        }
+        assertEquals(64 * 64, store.size());
+        for (int x = 0; x < 64; x++) {
+            for (int z = 0; z < 64; z++) {
+                int id = store.getOrCreate(x, 5, z, BetterBlockPos.longHash(x, 5, z));
+                assertEquals(ids[x][z], id);
+                assertEquals(x, store.x(id));
+                assertEquals(5, store.y(id));
+                assertEquals(z, store.z(id));
+                assertEquals(x + 5 + z, store.estimatedCostToGoal(id), 0);
+                assertFalse(store.isOpen(id));
+                assertEquals(CompactNodeStore.NONE, store.previous(id));
+            }
+        }
+        assertEquals(64 * 64, store.size());
+    }
+
+    @Test
+    public void testReset() {
+        CompactNodeStore store = new CompactNodeStore(GOAL, 16, 0.75f);
+        for (int x = 0; x < 100; x++) {
+            store.getOrCreate(x, 0, 0, BetterBlockPos.longHash(x, 0, 0));
+        }
+        // shrinking and keeping the arrays both have to forget every node
+        for (int maxCapacity : new int[]{16, 1 << 10}) {
+            store.reset(GOAL, maxCapacity);
+            assertEquals(0, store.size());
+            int id = store.getOrCreate(50, 0, 0, BetterBlockPos.longHash(50, 0, 0));
+            assertEquals(0, id);
+            assertEquals(50, store.x(id));
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    public void testPathReconstruction() {
+        CompactNodeStore store = new CompactNodeStore(GOAL, 16, 0.75f);
+        int prev = CompactNodeStore.NONE;
+        for (int i = 0; i < 100; i++) {
+            int id = store.getOrCreate(i, 0, -i, BetterBlockPos.longHash(i, 0, -i));
+            store.setCost(id, i * 2);
+            store.setPrevious(id, prev);
+            prev = id;
+        }
+        BetterBlockPos[] positions = store.positions(prev);
+        double[] costs = store.costs(prev);
+        assertEquals(100, positions.length);
+        assertEquals(100, costs.length);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(new BetterBlockPos(i, 0, -i), positions[i]);
+            assertEquals(i * 2, costs[i], 0);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package baritone.pathing.calc;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StablePrefixTrackerTest {
+
+    @Test
+    public void testStablePrefix() {
+        StablePrefixTracker tracker = new StablePrefixTracker(100, 3);
+        assertEquals(0, tracker.offer(0, new long[]{1, 2, 3, 4, 5}, 5));
+        assertEquals(0, tracker.offer(50, new long[]{1, 2, 3, 4, 6, 7}, 6));
+        // every path during the window agreed on 1 2 3 4
+        assertEquals(4, tracker.offer(100, new long[]{1, 2, 3, 4, 9}, 5));
+        assertTrue(tracker.isDone());
+        assertEquals(0, tracker.offer(200, new long[]{1, 2, 3, 4}, 4));
+    }
+
+    @Test
+    public void testUnstableWindowRestarts() {
+        StablePrefixTracker tracker = new StablePrefixTracker(100, 3);
+        tracker.offer(0, new long[]{1, 2, 3, 4}, 4);
+        // too short at the end of the window, so the next window starts from this path
+        assertEquals(0, tracker.offer(100, new long[]{1, 5, 6, 7}, 4));
+        assertFalse(tracker.isDone());
+        assertEquals(0, tracker.offer(150, new long[]{1, 5, 6, 8}, 4));
+        assertEquals(3, tracker.offer(200, new long[]{1, 5, 6, 7, 9}, 5));
+    }
+}
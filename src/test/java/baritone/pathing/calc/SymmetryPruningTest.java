@@ -0,0 +1,109 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.pathing.movement.Moves;
+import baritone.utils.ArrayBlockSource;
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.block.Blocks;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+public class SymmetryPruningTest {
+
+    private static final int X = 8;
+    private static final int Y = 64;
+    private static final int Z = 8;
+
+    @BeforeClass
+    public static void bootstrap() {
+        System.setProperty("baritone.headless", "true");
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    /**
+     * @return A flat stone floor below {@link #Y}, with air above it
+     */
+    private static ArrayBlockSource floor() {
+        ArrayBlockSource source = new ArrayBlockSource(0, 60, 0, 16, 10, 16);
+        source.fill(0, Y - 1, 0, 15, Y - 1, 15, Blocks.STONE.defaultBlockState());
+        return source;
+    }
+
+    private static EnumSet<Moves> survivors(Moves arrival) {
+        EnumSet<Moves> survivors = EnumSet.noneOf(Moves.class);
+        for (Moves moves : Moves.values()) {
+            if (SymmetryPruning.isFlat(moves) && !SymmetryPruning.isPruned(arrival, moves)) {
+                survivors.add(moves);
+            }
+        }
+        return survivors;
+    }
+
+    @Test
+    public void testForwardMovesSurviveOnUniformFloor() {
+        assertTrue(SymmetryPruning.isUniform(floor().createBlockStateInterface(), X, Y, Z));
+        assertEquals(EnumSet.of(Moves.TRAVERSE_NORTH), survivors(Moves.TRAVERSE_NORTH));
+        assertEquals(EnumSet.of(Moves.TRAVERSE_WEST), survivors(Moves.TRAVERSE_WEST));
+        assertEquals(EnumSet.of(Moves.DIAGONAL_NORTHEAST, Moves.TRAVERSE_NORTH, Moves.TRAVERSE_EAST), survivors(Moves.DIAGONAL_NORTHEAST));
+        assertEquals(EnumSet.of(Moves.DIAGONAL_SOUTHWEST, Moves.TRAVERSE_SOUTH, Moves.TRAVERSE_WEST), survivors(Moves.DIAGONAL_SOUTHWEST));
+    }
+
+    @Test
+    public void testStepIsNotUniform() {
+        ArrayBlockSource source = floor();
+        source.set(X + 1, Y, Z, Blocks.STONE.defaultBlockState());
+        assertFalse(SymmetryPruning.isUniform(source.createBlockStateInterface(), X, Y, Z));
+    }
+
+    @Test
+    public void testLiquidIsNotUniform() {
+        ArrayBlockSource source = floor();
+        source.set(X - 1, Y - 1, Z + 1, Blocks.WATER.defaultBlockState());
+        assertFalse(SymmetryPruning.isUniform(source.createBlockStateInterface(), X, Y, Z));
+        source = floor();
+        source.set(X, Y, Z - 1, Blocks.WATER.defaultBlockState());
+        assertFalse(SymmetryPruning.isUniform(source.createBlockStateInterface(), X, Y, Z));
+    }
+
+    @Test
+    public void testLiquidFloorIsNotUniform() {
+        ArrayBlockSource source = floor();
+        source.fill(0, Y - 1, 0, 15, Y - 1, 15, Blocks.WATER.defaultBlockState());
+        assertFalse(SymmetryPruning.isUniform(source.createBlockStateInterface(), X, Y, Z));
+        source = floor();
+        source.fill(0, Y - 1, 0, 15, Y - 1, 15, Blocks.LAVA.defaultBlockState());
+        assertFalse(SymmetryPruning.isUniform(source.createBlockStateInterface(), X, Y, Z));
+    }
+
+    @Test
+    public void testDifferentFloorIsNotUniform() {
+        ArrayBlockSource source = floor();
+        source.set(X + 1, Y - 1, Z - 1, Blocks.DIRT.defaultBlockState());
+        assertFalse(SymmetryPruning.isUniform(source.createBlockStateInterface(), X, Y, Z));
+        source = floor();
+        source.set(X, Y - 1, Z, Blocks.AIR.defaultBlockState());
+        assertFalse(SymmetryPruning.isUniform(source.createBlockStateInterface(), X, Y, Z));
+    }
+}
@@ -50,15 +50,16 @@ public class OpenSetsTest {
         return testSizes;
     }
 
-    private static void removeAndTest(int amount, IOpenSet[] test, Collection<PathNode> mustContain) {
+    private static void removeAndTest(int amount, IOpenSet[] test, Collection<Double> mustContain) {
         double[][] results = new double[test.length][amount];
         for (int i = 0; i < test.length; i++) {
             long before = System.nanoTime() / 1000000L;
             for (int j = 0; j < amount; j++) {
                 PathNode pn = test[i].removeLowest();
-                if (mustContain != null && !mustContain.contains(pn)) {
+                if (mustContain != null && !mustContain.contains(pn.combinedCost)) {
                     throw new IllegalStateException(mustContain + " " + pn);
                 }
+                assertFalse(pn.isOpen());
                 results[i][j] = pn.combinedCost;
             }
             System.out.println(test[i].getClass() + " " + (System.nanoTime() / 1000000L - before));
@@ -78,36 +79,47 @@ public class OpenSetsTest {
         System.out.println("Testing size " + size);
         // Include LinkedListOpenSet even though it's not performant because I absolutely trust that it behaves properly
         // I'm really testing the heap implementations against it as the ground truth
-        IOpenSet[] test = new IOpenSet[]{new BinaryHeapOpenSet(), new LinkedListOpenSet()};
+        IOpenSet[] test = new IOpenSet[]{new BinaryHeapOpenSet(), new LinkedListOpenSet(), new PairingHeapOpenSet(), new RadixHeapOpenSet()};
         for (IOpenSet set : test) {
             assertTrue(set.isEmpty());
         }
 
-        // generate the pathnodes that we'll be testing the sets on
-        PathNode[] toInsert = new PathNode[size];
+        // generate the costs that we'll be testing the sets on
+        double[] costs = new double[size];
         for (int i = 0; i < size; i++) {
-            // can't use an existing goal
-            // because they use Baritone.settings()
-            // and we can't do that because Minecraft itself isn't initted
-            PathNode pn = new PathNode(0, 0, 0, new Goal() {
-                @Override
-                public boolean isInGoal(int x, int y, int z) {
-                    return false;
-                }
+            costs[i] = Math.random();
+        }
 
-                @Override
-                public double heuristic(int x, int y, int z) {
-                    return 0;
-                }
-            });
-            pn.combinedCost = Math.random();
-            toInsert[i] = pn;
+        // every set gets its own nodes with the same costs, since the heaps keep their bookkeeping in the nodes
+        PathNode[][] toInsert = new PathNode[test.length][size];
+        for (int i = 0; i < test.length; i++) {
+            for (int j = 0; j < size; j++) {
+                // can't use an existing goal
+                // because they use Baritone.settings()
+                // and we can't do that because Minecraft itself isn't initted
+                PathNode pn = new PathNode(0, 0, 0, new Goal() {
+                    @Override
+                    public boolean isInGoal(int x, int y, int z) {
+                        return false;
+                    }
+
+                    @Override
+                    public double heuristic(int x, int y, int z) {
+                        return 0;
+                    }
+                });
+                pn.combinedCost = costs[j];
+                toInsert[i][j] = pn;
+            }
         }
 
         // create a list of what the first removals should be
-        ArrayList<PathNode> copy = new ArrayList<>(Arrays.asList(toInsert));
-        copy.sort(Comparator.comparingDouble(pn -> pn.combinedCost));
-        Set<PathNode> lowestQuarter = new HashSet<>(copy.subList(0, size / 4));
+        double[] sorted = costs.clone();
+        Arrays.sort(sorted);
+        Set<Double> lowestQuarter = new HashSet<>();
+        for (int i = 0; i < size / 4; i++) {
+            lowestQuarter.add(sorted[i]);
+        }
 
         // all opensets should be empty; nothing has been inserted yet
         for (IOpenSet set : test) {
@@ -115,11 +127,12 @@ public class OpenSetsTest {
         }
 
         System.out.println("Insertion");
-        for (IOpenSet set : test) {
+        for (int j = 0; j < test.length; j++) {
             long before = System.nanoTime() / 1000000L;
             for (int i = 0; i < size; i++)
-                set.insert(toInsert[i]);
-            System.out.println(set.getClass() + " " + (System.nanoTime() / 1000000L - before));
+                test[j].insert(toInsert[j][i]);
+            assertEquals(size, test[j].size());
+            System.out.println(test[j].getClass() + " " + (System.nanoTime() / 1000000L - before));
             //all three take either 0 or 1ms to insert up to 10,000 nodes
             //linkedlist takes 0ms most often (because there's no array resizing or allocation there, just pointer shuffling)
         }
@@ -139,16 +152,18 @@ public class OpenSetsTest {
         }
         int cnt = 0;
         for (int i = 0; cnt < size / 2 && i < size; i++) {
-            if (lowestQuarter.contains(toInsert[i])) { // these were already removed and can't be updated to test
+            if (lowestQuarter.contains(costs[i])) { // these were already removed and can't be updated to test
                 continue;
             }
-            toInsert[i].combinedCost *= Math.random();
+            costs[i] *= Math.random();
             // multiplying it by a random number between 0 and 1 is guaranteed to decrease it
-            for (IOpenSet set : test) {
+            // it can also make it lower than what was already removed, which the radix heap has to handle
+            for (int j = 0; j < test.length; j++) {
                 // it's difficult to benchmark these individually because if you modify all at once then update then
                 // it breaks the internal consistency of the heaps.
                 // you have to call update every time you modify a node.
-                set.update(toInsert[i]);
+                toInsert[j][i].combinedCost = costs[i];
+                test[j].update(toInsert[j][i]);
             }
             cnt++;
         }
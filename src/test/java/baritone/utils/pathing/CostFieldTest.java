@@ -0,0 +1,67 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package baritone.utils.pathing;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class CostFieldTest {
+
+    private static double sphere(int x, int y, int z, Avoidance... avoidances) {
+        double result = 1;
+        for (Avoidance avoid : avoidances) {
+            result *= avoid.coefficient(x, y, z);
+        }
+        return result;
+    }
+
+    @Test
+    public void testMatchesSpheres() {
+        Avoidance a = new Avoidance(5, 70, -3, 2, 8);
+        Avoidance b = new Avoidance(-10, 64, 20, 1.5, 16);
+        CostField field = new AvoidanceField().update(Arrays.asList(a, b, b));
+        for (int x = -40; x <= 40; x += 3) {
+            for (int y = 40; y <= 100; y += 3) {
+                for (int z = -30; z <= 50; z += 3) {
+                    assertEquals(sphere(x, y, z, a, b, b), field.get(x, y, z), 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIncrementalUpdate() {
+        Avoidance a = new Avoidance(0, 64, 0, 2, 8);
+        Avoidance b = new Avoidance(100, 64, 100, 3, 8);
+        Avoidance moved = new Avoidance(4, 64, 0, 2, 8);
+        AvoidanceField avoidanceField = new AvoidanceField();
+        avoidanceField.update(Arrays.asList(a, b));
+        CostField field = avoidanceField.update(Arrays.asList(moved, b));
+        for (int x = -20; x <= 120; x++) {
+            for (int z = -20; z <= 120; z += 7) {
+                assertEquals(sphere(x, 64, z, moved, b), field.get(x, 64, z), 0);
+            }
+        }
+        assertTrue(avoidanceField.update(Collections.emptyList()).isEmpty());
+    }
+}